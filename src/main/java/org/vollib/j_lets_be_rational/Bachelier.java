@@ -0,0 +1,128 @@
+package org.vollib.j_lets_be_rational;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.log;
+import static java.lang.Math.max;
+import static java.lang.Math.sqrt;
+
+import static org.vollib.j_lets_be_rational.Constants.*;
+import static org.vollib.j_lets_be_rational.ErfCody.erfcx_cody;
+import static org.vollib.j_lets_be_rational.NormalDistribution.norm_pdf;
+
+/**
+ * The Bachelier (normal) model and its implied volatility following Peter Jäckel, "Implied Normal Volatility",
+ * Wilmott, pages 54-57, July 2017 (available at www.jaeckel.org/ImpliedNormalVolatility.pdf).
+ * <p>
+ * With θ=q=±1 for calls and puts, and σ the normal (absolute) volatility, the undiscounted price is
+ * <p>
+ * B(F,K,σ,T,θ)  =  θ·(F-K)·Φ(θ·(F-K)/(σ√T))  +  σ√T·φ(θ·(F-K)/(σ√T)) .
+ * <p>
+ * Its time value is a function of x := -|F-K|/(σ√T) ≤ 0 alone, namely
+ * <p>
+ * B - intrinsic  =  -|F-K|·φ̃(x)    with    φ̃(x) := Φ(x) + φ(x)/x ,
+ * <p>
+ * and the implied volatility is found by inverting φ̃ with one of two rational approximations followed by a single
+ * third order Householder step, without any iteration. For out-of-the-money options, the round trip from volatility to
+ * price and back is accurate to a few multiples of DBL_EPSILON.
+ * <p>
+ * Unlike the Black model, the Bachelier model has no upper price bound, so there is no above-maximum case.
+ */
+public class Bachelier {
+
+    private Bachelier() {
+    }
+
+    /**
+     * The boundary between the two rational approximations of the inverse of φ̃, see equation (1.4) in the article.
+     */
+    private static final double phi_tilde_star_threshold = -0.001882039271;
+
+    /**
+     * φ̃(x) = Φ(x) + φ(x)/x for x < 0.
+     * <p>
+     * For x ≤ -10, Φ(x) is given by the asymptotic expansion (26.2.12) in Abramowitz & Stegun, as in norm_cdf(), whose
+     * leading term cancels φ(x)/x exactly, so that φ̃(x) = φ(x)/x · [1/x² - 3/x⁴ + 15/x⁶ - ...] loses no accuracy.
+     * Above, we use Φ(x) = φ(x)·√(π/2)·erfcx(-x/√2) so that the cancellation happens between two terms of order 1/|x|
+     * rather than between Φ(x) and φ(x)/x, which each carry the error of exp(-x²/2).
+     */
+    static double phi_tilde(double x) {
+        if (x <= -10) {
+            double xsqr = x * x, i = 1, g = 1, u, v, a = DBL_MAX, lasta, sum = 0;
+            do {
+                lasta = a;
+                u = (4 * i - 3) / xsqr;
+                v = u * ((4 * i - 1) / xsqr);
+                a = g * (u - v);
+                sum += a;
+                g *= v;
+                ++i;
+                a = abs(a);
+            } while (lasta > a && a >= abs(sum * DBL_EPSILON));
+            return norm_pdf(x) / x * sum;
+        }
+        return norm_pdf(x) * (SQRT_PI_OVER_TWO * erfcx_cody(-ONE_OVER_SQRT_TWO * x) + 1 / x);
+    }
+
+    public static double bachelier(double F, double K, double sigma, double T, double q /* q=±1 */) {
+        final double intrinsic = abs(max((q < 0 ? K - F : F - K), 0.0)), s = sigma * sqrt(T);
+        if (s <= 0)
+            return intrinsic;
+        final double absolute_moneyness = abs(F - K);
+        if (absolute_moneyness <= 0)
+            return ONE_OVER_SQRT_TWO_PI * s;
+        return intrinsic + max(-absolute_moneyness * phi_tilde(-absolute_moneyness / s), 0.0);
+    }
+
+    /**
+     * As implied_normal_volatility() but, instead of throwing VolatilityValueException, returns
+     * VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC for prices below the intrinsic value.
+     */
+    public static double implied_normal_volatility_nothrow(double price, double F, double K, double T, double q /* q=±1 */) {
+        final double intrinsic = abs(max((q < 0 ? K - F : F - K), 0.0));
+        if (price < intrinsic)
+            return VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC;
+        final double time_value = price - intrinsic, absolute_moneyness = abs(F - K);
+        if (absolute_moneyness <= 0) // At the money, B = σ√T/√(2π).
+            return SQRT_TWO_PI * time_value / sqrt(T);
+        if (time_value <= DENORMALIZATION_CUTOFF)
+            return 0;
+        final double phi_tilde_star = -time_value / absolute_moneyness;
+        double x_bar;
+        if (phi_tilde_star < phi_tilde_star_threshold) {
+            // Equation (1.5).
+            final double g = 1 / (phi_tilde_star - 0.5), g2 = g * g;
+            final double xi_bar = (0.032114372355 - g2 * (0.016969777977 - g2 * (2.6207332461E-3 - 9.6066952861E-5 * g2))) / (1 - g2 * (0.6635646938 - g2 * (0.14528712196 - 0.010472855461 * g2)));
+            x_bar = g * (ONE_OVER_SQRT_TWO_PI + xi_bar * g2);
+        } else {
+            // Equation (1.6).
+            final double h = sqrt(-log(-phi_tilde_star));
+            x_bar = (9.4883409779 - h * (9.6320903635 - h * (0.58556997323 + 2.1464093351 * h))) / (1 - h * (0.65174820867 + h * (1.5120247828 + 6.6437847132E-5 * h)));
+        }
+        final double phi_x_bar = norm_pdf(x_bar);
+        if (phi_x_bar > 0) {
+            // One third order Householder step, equation (1.8).
+            final double q_bar = (phi_tilde(x_bar) - phi_tilde_star) / phi_x_bar, x2 = x_bar * x_bar;
+            x_bar += 3 * q_bar * x2 * (2 - q_bar * x_bar * (2 + x2)) / (6 + q_bar * x_bar * (-12 + x_bar * (6 * q_bar + x_bar * (-6 + q_bar * x_bar * (3 + x2)))));
+        }
+        return absolute_moneyness / (abs(x_bar) * sqrt(T));
+    }
+
+    public static double implied_normal_volatility(double price, double F, double K, double T, double q /* q=±1 */) throws VolatilityValueException {
+        return LetsBeRational.checked_implied_volatility_output(implied_normal_volatility_nothrow(price, F, K, T, q));
+    }
+
+    /**
+     * Batch form of implied_normal_volatility_nothrow() over parallel arrays, with the same layout and status codes as
+     * LetsBeRational.implied_volatility_from_a_transformed_rational_guess(double[], ...). No memory is allocated.
+     */
+    public static void implied_normal_volatility(double[] price, double[] F, double[] K, double[] T, double[] q, double[] volatility, int[] status, int offset, int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            final double v = implied_normal_volatility_nothrow(price[i], F[i], K[i], T[i], q[i]);
+            volatility[i] = v;
+            if (status != null)
+                status[i] = LetsBeRational.implied_volatility_status(v);
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package org.vollib.j_lets_be_rational;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads quotes from fixed-width binary records of five little-endian IEEE 754 doubles: price, F, K, T and q.
+ */
+public class BinaryQuoteReader implements QuoteReader {
+
+    public static final int RECORD_SIZE = 5 * Double.BYTES;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * @param records_per_read the number of records to read per call to the channel
+     */
+    public BinaryQuoteReader(ReadableByteChannel channel, int records_per_read) {
+        if (records_per_read < 1)
+            throw new IllegalArgumentException("The number of records per read must be positive, got " + records_per_read + ".");
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(records_per_read * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+    }
+
+    @Override
+    public int read(QuoteChunk chunk) throws IOException {
+        final int capacity = chunk.capacity();
+        int n = 0;
+        while (n < capacity) {
+            if (buffer.remaining() < RECORD_SIZE) {
+                buffer.compact();
+                int read;
+                do { // Until there is at least one whole record or the input ends.
+                    read = channel.read(buffer);
+                } while (read >= 0 && buffer.position() < RECORD_SIZE);
+                buffer.flip();
+                if (read < 0 && buffer.remaining() < RECORD_SIZE) {
+                    if (buffer.hasRemaining())
+                        throw new EOFException("Truncated record of " + buffer.remaining() + " bytes at the end of the input.");
+                    break;
+                }
+            }
+            while (n < capacity && buffer.remaining() >= RECORD_SIZE) {
+                chunk.price[n] = buffer.getDouble();
+                chunk.F[n] = buffer.getDouble();
+                chunk.K[n] = buffer.getDouble();
+                chunk.T[n] = buffer.getDouble();
+                chunk.q[n] = buffer.getDouble();
+                ++n;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
@@ -0,0 +1,56 @@
+package org.vollib.j_lets_be_rational;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes one fixed-width binary record per quote, in input order: the implied volatility as a little-endian IEEE 754
+ * double followed by the IMPLIED_VOLATILITY_STATUS_* code as a little-endian int.
+ */
+public class BinaryQuoteWriter implements QuoteWriter {
+
+    public static final int RECORD_SIZE = Double.BYTES + Integer.BYTES;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * @param records_per_write the number of records to buffer per call to the channel
+     */
+    public BinaryQuoteWriter(WritableByteChannel channel, int records_per_write) {
+        if (records_per_write < 1)
+            throw new IllegalArgumentException("The number of records per write must be positive, got " + records_per_write + ".");
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(records_per_write * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void write(QuoteChunk chunk) throws IOException {
+        final int n = chunk.size();
+        for (int i = 0; i < n; ++i) {
+            if (buffer.remaining() < RECORD_SIZE)
+                flush();
+            buffer.putDouble(chunk.volatility[i]).putInt(chunk.status[i]);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+}
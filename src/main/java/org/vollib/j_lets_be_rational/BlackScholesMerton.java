@@ -0,0 +1,86 @@
+package org.vollib.j_lets_be_rational;
+
+import static java.lang.Math.exp;
+
+/**
+ * Black-Scholes-Merton front-end to LetsBeRational in terms of the spot S, the continuously compounded interest rate r
+ * and dividend yield, and the time to expiry T. With the forward and discount factor
+ * <p>
+ * F = S·exp((r-dividend_yield)·T)    and    D = exp(-r·T) ,
+ * <p>
+ * the option price is D·black(F,K,sigma,T,q), and an implied volatility is found by applying
+ * LetsBeRational.implied_volatility_from_a_transformed_rational_guess() to the undiscounted price price/D.
+ * <p>
+ * F and D depend only on the expiry, so the batch functions take the strikes of one or more expiries and compute them
+ * once per expiry: every strike then costs exactly as much as the bare Black function, and gives a bit-identical
+ * result to the scalar function here.
+ */
+public class BlackScholesMerton {
+
+    private BlackScholesMerton() {
+    }
+
+    public static double forward(double S, double T, double r, double dividend_yield) {
+        return S * exp((r - dividend_yield) * T);
+    }
+
+    public static double discount_factor(double T, double r) {
+        return exp(-r * T);
+    }
+
+    public static double black_scholes_merton(double S, double K, double sigma, double T, double r, double dividend_yield, double q /* q=±1 */) {
+        return discount_factor(T, r) * LetsBeRational.black(forward(S, T, r, dividend_yield), K, sigma, T, q);
+    }
+
+    /**
+     * As implied_volatility_from_a_transformed_rational_guess() but, instead of throwing VolatilityValueException, returns
+     * VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC or VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM for
+     * out-of-range prices.
+     */
+    public static double implied_volatility_from_a_transformed_rational_guess_nothrow(double price, double S, double K, double T, double r, double dividend_yield, double q /* q=±1 */) {
+        return LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow(price / discount_factor(T, r), forward(S, T, r, dividend_yield), K, T, q);
+    }
+
+    public static double implied_volatility_from_a_transformed_rational_guess(double price, double S, double K, double T, double r, double dividend_yield, double q /* q=±1 */) throws VolatilityValueException {
+        return LetsBeRational.checked_implied_volatility_output(implied_volatility_from_a_transformed_rational_guess_nothrow(price, S, K, T, r, dividend_yield, q));
+    }
+
+    /**
+     * Prices of a chain of options on the same spot, grouped by expiry.
+     * <p>
+     * Expiry j, for j = 0, ..., T.length-1, with time to expiry T[j], interest rate r[j] and dividend yield
+     * dividend_yield[j], comprises the options expiry_offset[j], ..., expiry_offset[j+1]-1, with strikes K[i], volatilities
+     * sigma[i] and q[i]=±1 for calls and puts. Their prices are written to price[i]. No memory is allocated.
+     *
+     * @param expiry_offset the index of the first option of each expiry, followed by the index after the last option of
+     *                      the last expiry, i.e. T.length+1 non-decreasing indices
+     */
+    public static void black_scholes_merton(double S, double[] T, double[] r, double[] dividend_yield, int[] expiry_offset, double[] K, double[] sigma, double[] q, double[] price) {
+        for (int j = 0; j < T.length; ++j) {
+            final double t = T[j], F = forward(S, t, r[j], dividend_yield[j]), D = discount_factor(t, r[j]);
+            final int end = expiry_offset[j + 1];
+            for (int i = expiry_offset[j]; i < end; ++i)
+                price[i] = D * LetsBeRational.black(F, K[i], sigma[i], t, q[i]);
+        }
+    }
+
+    /**
+     * Implied volatilities of a chain of options on the same spot, grouped by expiry as in black_scholes_merton(double,
+     * double[], ...). Instead of throwing VolatilityValueException, each out-of-range price gets the matching
+     * VOLATILITY_VALUE_TO_SIGNAL_* value in volatility and, if status is not null, the matching IMPLIED_VOLATILITY_STATUS_*
+     * code in status. No memory is allocated.
+     */
+    public static void implied_volatility_from_a_transformed_rational_guess(double S, double[] T, double[] r, double[] dividend_yield, int[] expiry_offset, double[] price, double[] K, double[] q, double[] volatility, int[] status) {
+        for (int j = 0; j < T.length; ++j) {
+            final double t = T[j], F = forward(S, t, r[j], dividend_yield[j]), D = discount_factor(t, r[j]);
+            final int end = expiry_offset[j + 1];
+            for (int i = expiry_offset[j]; i < end; ++i) {
+                final double v = LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow(price[i] / D, F, K[i], t, q[i]);
+                volatility[i] = v;
+                if (status != null)
+                    status[i] = LetsBeRational.implied_volatility_status(v);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,252 @@
+package org.vollib.j_lets_be_rational;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A memory-mapped file of option quotes and their implied volatilities in columnar layout.
+ * <p>
+ * All values are little-endian. The file starts with a header of HEADER_SIZE bytes:
+ * <pre>
+ * offset  0  long   MAGIC
+ * offset  8  int    VERSION
+ * offset 12  int    HEADER_SIZE
+ * offset 16  long   the number of quotes n
+ * offset 24  zero padding
+ * </pre>
+ * followed by the double columns PRICE, F, K, T, Q and VOLATILITY of n elements each, in this order, and finally the
+ * int column of n IMPLIED_VOLATILITY_STATUS_* codes. Prices are undiscounted, and Q is ±1 for calls and puts.
+ * <p>
+ * Columns are accessed through DoubleBuffer and IntBuffer views of mapped windows of the file, which the solver reads
+ * and writes in place: no value is copied to the heap. Since a single mapping cannot exceed 2 GB, solve() maps the
+ * columns in windows of window_size quotes, starting at multiples of window_size, so files of any size can be
+ * processed. Only the mappings of the last window are kept, for a later solve of the same window and for force(); those
+ * of the earlier windows are released once they are garbage collected.
+ */
+public final class ColumnarQuoteFile implements Closeable {
+
+    public static final long MAGIC = 0x314C4F4352424C4AL;  // "JLBRCOL1"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+
+    public static final int PRICE = 0;
+    public static final int F = 1;
+    public static final int K = 2;
+    public static final int T = 3;
+    public static final int Q = 4;
+    public static final int VOLATILITY = 5;
+    private static final int DOUBLE_COLUMNS = 6;
+
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 20;
+    /**
+     * The largest window whose double columns can each be mapped at once.
+     */
+    public static final int MAXIMUM_WINDOW_SIZE = Integer.MAX_VALUE / Double.BYTES;
+
+    /**
+     * The mappings of the columns of one window, see solve().
+     */
+    private static final class Window {
+        final long first;
+        final int length;
+        final DoubleBuffer price, F, K, T, q, volatility;
+        final IntBuffer status;
+        final MappedByteBuffer volatility_mapping, status_mapping;
+
+        Window(ColumnarQuoteFile file, long first, int length) throws IOException {
+            this.first = first;
+            this.length = length;
+            price = file.map(PRICE, first, length);
+            F = file.map(ColumnarQuoteFile.F, first, length);
+            K = file.map(ColumnarQuoteFile.K, first, length);
+            T = file.map(ColumnarQuoteFile.T, first, length);
+            q = file.map(Q, first, length);
+            volatility_mapping = file.map(file.column_position(VOLATILITY, first), (long) length * Double.BYTES);
+            volatility = volatility_mapping.asDoubleBuffer();
+            status_mapping = file.map(file.status_position(first), (long) length * Integer.BYTES);
+            status = status_mapping.asIntBuffer();
+        }
+    }
+
+    private final FileChannel channel;
+    private final FileChannel.MapMode mode;
+    private final long size;
+    // The last window mapped by solve(), or null.
+    private Window window;
+
+    private ColumnarQuoteFile(FileChannel channel, FileChannel.MapMode mode, long size) {
+        this.channel = channel;
+        this.mode = mode;
+        this.size = size;
+    }
+
+    /**
+     * @return the length in bytes of a file of n quotes
+     */
+    public static long file_length(long n) {
+        return HEADER_SIZE + n * (DOUBLE_COLUMNS * Double.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * Creates, or truncates and recreates, a file of n quotes with all columns zero, open for reading and writing.
+     */
+    public static ColumnarQuoteFile create(Path path, long n) throws IOException {
+        if (n < 0)
+            throw new IllegalArgumentException("The number of quotes must not be negative, got " + n + ".");
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC).putInt(VERSION).putInt(HEADER_SIZE).putLong(n).clear();
+            while (header.hasRemaining())
+                channel.write(header);
+            // Extends the file without writing the columns, which most file systems then allocate lazily.
+            final long length = file_length(n);
+            if (length > HEADER_SIZE)
+                channel.write(ByteBuffer.allocate(1), length - 1);
+            return new ColumnarQuoteFile(channel, FileChannel.MapMode.READ_WRITE, n);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing file, for reading only unless writable, in which case solve() and writes to the mapped columns
+     * are allowed.
+     *
+     * @throws IOException if the file does not start with a valid header or its length does not match the header
+     */
+    public static ColumnarQuoteFile open(Path path, boolean writable) throws IOException {
+        final FileChannel channel = writable ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE) : FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            int read;
+            do { // Until the header is complete or the file ends.
+                read = channel.read(header);
+            } while (read >= 0 && header.hasRemaining());
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getLong() != MAGIC)
+                throw new IOException(path + " is not a columnar quote file.");
+            final int version = header.getInt(), header_size = header.getInt();
+            if (version != VERSION || header_size != HEADER_SIZE)
+                throw new IOException(path + " has unsupported version " + version + " with a header of " + header_size + " bytes.");
+            final long n = header.getLong();
+            if (n < 0 || channel.size() != file_length(n))
+                throw new IOException(path + " is " + channel.size() + " bytes long but its header declares " + n + " quotes.");
+            return new ColumnarQuoteFile(channel, writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, n);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of quotes n
+     */
+    public long size() {
+        return size;
+    }
+
+    private void check_window(long first, int length) {
+        if (first < 0 || length < 0 || first > size - length)
+            throw new IndexOutOfBoundsException("The window " + first + ", ..., " + (first + length - 1) + " is outside the quotes 0, ..., " + (size - 1) + ".");
+        if (length > MAXIMUM_WINDOW_SIZE)
+            throw new IllegalArgumentException("A window cannot exceed " + MAXIMUM_WINDOW_SIZE + " quotes, got " + length + ".");
+    }
+
+    private MappedByteBuffer map(long position, long bytes) throws IOException {
+        final MappedByteBuffer mapping = channel.map(mode, position, bytes);
+        mapping.order(ByteOrder.LITTLE_ENDIAN);
+        return mapping;
+    }
+
+    private long column_position(int column, long first) {
+        return HEADER_SIZE + (column * size + first) * Double.BYTES;
+    }
+
+    private long status_position(long first) {
+        return HEADER_SIZE + DOUBLE_COLUMNS * size * Double.BYTES + first * Integer.BYTES;
+    }
+
+    /**
+     * @param column one of PRICE, F, K, T, Q and VOLATILITY
+     * @return a view of the quotes first, ..., first+length-1 of the column, whose element 0 is quote first. The view is
+     * read-only unless the file was opened writable, and stays valid after close().
+     */
+    public DoubleBuffer map(int column, long first, int length) throws IOException {
+        if (column < 0 || column >= DOUBLE_COLUMNS)
+            throw new IllegalArgumentException("Unknown column " + column + ".");
+        check_window(first, length);
+        return map(column_position(column, first), (long) length * Double.BYTES).asDoubleBuffer();
+    }
+
+    /**
+     * @return a view of the status codes of the quotes first, ..., first+length-1, see map(int, long, int)
+     */
+    public IntBuffer map_status(long first, int length) throws IOException {
+        check_window(first, length);
+        return map(status_position(first), (long) length * Integer.BYTES).asIntBuffer();
+    }
+
+    /**
+     * Solves the quotes first, ..., first+length-1 in place into the VOLATILITY and status columns, window by window.
+     * The windows start at multiples of window_size. The results are those of the batch form of
+     * LetsBeRational.implied_volatility_from_a_transformed_rational_guess(), and reach the storage device by force().
+     */
+    public void solve(long first, long length, int window_size) throws IOException {
+        if (mode != FileChannel.MapMode.READ_WRITE)
+            throw new IOException("The file is open for reading only.");
+        if (window_size < 1 || window_size > MAXIMUM_WINDOW_SIZE)
+            throw new IllegalArgumentException("The window size must be between 1 and " + MAXIMUM_WINDOW_SIZE + ", got " + window_size + ".");
+        if (first < 0 || length < 0 || first > size - length)
+            throw new IndexOutOfBoundsException("The quotes " + first + ", ..., " + (first + length - 1) + " are outside 0, ..., " + (size - 1) + ".");
+        final long end = first + length;
+        for (long i = first; i < end; ) {
+            final long start = i / window_size * window_size;
+            final int window_length = (int) Math.min(window_size, size - start);
+            Window window = this.window;
+            if (window == null || window.first != start || window.length != window_length)
+                window = this.window = new Window(this, start, window_length);
+            final int offset = (int) (i - start), n = (int) Math.min(window_size - offset, end - i);
+            LetsBeRational.implied_volatility_from_a_transformed_rational_guess(window.price, window.F, window.K, window.T, window.q, window.volatility, window.status, offset, n);
+            i += n;
+        }
+    }
+
+    /**
+     * Solves all quotes in place, see solve(long, long, int).
+     */
+    public void solve() throws IOException {
+        solve(0, size, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Writes the header and the results in the last window solved through to the storage device, see FileChannel.force()
+     * and MappedByteBuffer.force(). The results of earlier windows, like changes made through the views returned by
+     * map() and map_status(), are written back by the operating system, which FileChannel.force() does not guarantee
+     * to wait for.
+     */
+    public void force() throws IOException {
+        final Window window = this.window;
+        if (window != null) {
+            window.volatility_mapping.force();
+            window.status_mapping.force();
+        }
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+}
@@ -9,6 +9,7 @@ public class Constants {
     public static final double DBL_EPSILON = 2.2204460492503131E-16;
     public static final double DBL_MIN = 2.2250738585072014E-308;
     public static final double DBL_MAX = 1.7976931348623157E+308;
+    public static final double FLT_EPSILON = 1.1920928955078125E-7;
 
     public static final double TWO_PI                        = 6.283185307179586476925286766559005768394338798750;
     public static final double SQRT_PI_OVER_TWO              = 1.253314137315500251207882642405522626503493370305;  // Math.sqrt(pi/2) to avoid misinterpretation.
@@ -31,6 +32,21 @@ public class Constants {
     public static final double VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC = -DBL_MAX;
     public static final double VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM = DBL_MAX;
 
+    // Status codes written by the batch implied volatility functions in place of VolatilityValueException.
+    public static final int IMPLIED_VOLATILITY_STATUS_OK = 0;
+    public static final int IMPLIED_VOLATILITY_STATUS_BELOW_INTRINSIC = 1;
+    public static final int IMPLIED_VOLATILITY_STATUS_ABOVE_MAXIMUM = 2;
+
+    // Positions of the price and its sensitivities in the output of black_and_greeks().
+    public static final int GREEKS_PRICE = 0;
+    public static final int GREEKS_DELTA = 1;
+    public static final int GREEKS_GAMMA = 2;
+    public static final int GREEKS_VEGA = 3;
+    public static final int GREEKS_THETA = 4;
+    public static final int GREEKS_VANNA = 5;
+    public static final int GREEKS_VOLGA = 6;
+    public static final int GREEKS_LENGTH = 7;
+
     public static final double ONE_OVER_SQRT_TWO     = 0.7071067811865475244008443621048490392848359376887;
     public static final double ONE_OVER_SQRT_TWO_PI  = 0.3989422804014326779399460599343818684758586311649;
     public static final double SQRT_TWO_PI           = 2.506628274631000502415765284811045253006986740610;
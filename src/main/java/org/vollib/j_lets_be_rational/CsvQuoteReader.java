@@ -0,0 +1,69 @@
+package org.vollib.j_lets_be_rational;
+
+import au.com.bytecode.opencsv.CSVParser;
+import au.com.bytecode.opencsv.CSVReader;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads quotes from comma-separated lines of price, F, K, T and q, where q is 1 or c for calls and -1 or p for puts.
+ * Any further columns are ignored.
+ */
+public class CsvQuoteReader implements QuoteReader {
+
+    private final CSVReader reader;
+    private long line;
+
+    /**
+     * @param skip_lines the number of header lines to skip
+     */
+    public CsvQuoteReader(Reader reader, int skip_lines) {
+        this.reader = new CSVReader(reader, CSVParser.DEFAULT_SEPARATOR, CSVParser.DEFAULT_QUOTE_CHARACTER, skip_lines);
+        this.line = skip_lines;
+    }
+
+    private static double parse_q(String field) {
+        switch (field) {
+            case "c":
+            case "C":
+                return 1;
+            case "p":
+            case "P":
+                return -1;
+            default:
+                return Double.parseDouble(field);
+        }
+    }
+
+    @Override
+    public int read(QuoteChunk chunk) throws IOException {
+        final int capacity = chunk.capacity();
+        int n = 0;
+        String[] fields;
+        while (n < capacity && (fields = reader.readNext()) != null) {
+            ++line;
+            if (fields.length == 1 && fields[0].trim().isEmpty())
+                continue;
+            if (fields.length < 5)
+                throw new IOException("Line " + line + ": expected price, F, K, T and q, got " + fields.length + " fields.");
+            try {
+                chunk.price[n] = Double.parseDouble(fields[0].trim());
+                chunk.F[n] = Double.parseDouble(fields[1].trim());
+                chunk.K[n] = Double.parseDouble(fields[2].trim());
+                chunk.T[n] = Double.parseDouble(fields[3].trim());
+                chunk.q[n] = parse_q(fields[4].trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Line " + line + ": " + e.getMessage(), e);
+            }
+            ++n;
+        }
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
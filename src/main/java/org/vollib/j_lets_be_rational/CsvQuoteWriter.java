@@ -0,0 +1,48 @@
+package org.vollib.j_lets_be_rational;
+
+import au.com.bytecode.opencsv.CSVWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes one comma-separated line of implied volatility and IMPLIED_VOLATILITY_STATUS_* code per quote, in input
+ * order.
+ */
+public class CsvQuoteWriter implements QuoteWriter {
+
+    private final CSVWriter writer;
+    private final String[] fields = new String[2];
+
+    /**
+     * @param header whether to start with a volatility,status header line
+     */
+    public CsvQuoteWriter(Writer writer, boolean header) {
+        this.writer = new CSVWriter(writer, CSVWriter.DEFAULT_SEPARATOR, CSVWriter.NO_QUOTE_CHARACTER, "\n");
+        if (header)
+            this.writer.writeNext(new String[]{"volatility", "status"});
+    }
+
+    @Override
+    public void write(QuoteChunk chunk) throws IOException {
+        final int n = chunk.size();
+        for (int i = 0; i < n; ++i) {
+            fields[0] = Double.toString(chunk.volatility[i]);
+            fields[1] = Integer.toString(chunk.status[i]);
+            writer.writeNext(fields);
+        }
+        if (writer.checkError())
+            throw new IOException("Failed to write implied volatilities.");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+}
@@ -10,12 +10,46 @@ public class ErfCody {
         return ((x > 0) ? floor(x) : -floor(-x));
     }
 
-    static final double A[] = new double[]{3.1611237438705656, 113.864154151050156, 377.485237685302021, 3209.37758913846947, .185777706184603153};
-    static final double B[] = new double[]{23.6012909523441209, 244.024637934444173, 1282.61652607737228, 2844.23683343917062};
-    static final double C[] = new double[]{.564188496988670089, 8.88314979438837594, 66.1191906371416295, 298.635138197400131, 881.95222124176909, 1712.04761263407058, 2051.07837782607147, 1230.33935479799725, 2.15311535474403846e-8};
-    static final double D[] = new double[]{15.7449261107098347, 117.693950891312499, 537.181101862009858, 1621.38957456669019, 3290.79923573345963, 4362.61909014324716, 3439.36767414372164, 1230.33935480374942};
-    static final double P[] = new double[]{.305326634961232344, .360344899949804439, .125781726111229246, .0160837851487422766, 6.58749161529837803e-4, .0163153871373020978};
-    static final double Q[] = new double[]{2.56852019228982242, 1.87295284992346047, .527905102951428412, .0605183413124413191, .00233520497626869185};
+    // Coefficients for approximation to erf in first interval
+    static final double A0 = 3.1611237438705656;
+    static final double A1 = 113.864154151050156;
+    static final double A2 = 377.485237685302021;
+    static final double A3 = 3209.37758913846947;
+    static final double A4 = .185777706184603153;
+    static final double B0 = 23.6012909523441209;
+    static final double B1 = 244.024637934444173;
+    static final double B2 = 1282.61652607737228;
+    static final double B3 = 2844.23683343917062;
+    // Coefficients for approximation to erfc in second interval
+    static final double C0 = .564188496988670089;
+    static final double C1 = 8.88314979438837594;
+    static final double C2 = 66.1191906371416295;
+    static final double C3 = 298.635138197400131;
+    static final double C4 = 881.95222124176909;
+    static final double C5 = 1712.04761263407058;
+    static final double C6 = 2051.07837782607147;
+    static final double C7 = 1230.33935479799725;
+    static final double C8 = 2.15311535474403846e-8;
+    static final double D0 = 15.7449261107098347;
+    static final double D1 = 117.693950891312499;
+    static final double D2 = 537.181101862009858;
+    static final double D3 = 1621.38957456669019;
+    static final double D4 = 3290.79923573345963;
+    static final double D5 = 4362.61909014324716;
+    static final double D6 = 3439.36767414372164;
+    static final double D7 = 1230.33935480374942;
+    // Coefficients for approximation to erfc in third interval
+    static final double P0 = .305326634961232344;
+    static final double P1 = .360344899949804439;
+    static final double P2 = .125781726111229246;
+    static final double P3 = .0160837851487422766;
+    static final double P4 = 6.58749161529837803e-4;
+    static final double P5 = .0163153871373020978;
+    static final double Q0 = 2.56852019228982242;
+    static final double Q1 = 1.87295284992346047;
+    static final double Q2 = .527905102951428412;
+    static final double Q3 = .0605183413124413191;
+    static final double Q4 = .00233520497626869185;
 
     static final double ZERO = 0.;
     static final double HALF = .5;
@@ -54,10 +88,55 @@ public class ErfCody {
     static final double XHUGE = 6.71e7;
     static final double XMAX = 2.53e307;
 
+    /**
+     * x·R(x²) ≈ erf(x) for |x| <= THRESH, with ysq = x² (or 0 when |x| <= XSMALL). The DO 20 loop of CALERF, unrolled.
+     */
+    private static double erf_first_interval(final double x, final double ysq) {
+        final double xnum = (((A4 * ysq + A0) * ysq + A1) * ysq + A2) * ysq;
+        final double xden = (((ysq + B0) * ysq + B1) * ysq + B2) * ysq;
+        return x * (xnum + A3) / (xden + B3);
+    }
+
+    /**
+     * R(y) ≈ erfcx(y) for THRESH < y <= 4. The DO 120 loop of CALERF, unrolled.
+     */
+    private static double erfcx_second_interval(final double y) {
+        final double xnum = (((((((C8 * y + C0) * y + C1) * y + C2) * y + C3) * y + C4) * y + C5) * y + C6) * y;
+        final double xden = (((((((y + D0) * y + D1) * y + D2) * y + D3) * y + D4) * y + D5) * y + D6) * y;
+        return (xnum + C7) / (xden + D7);
+    }
+
+    /**
+     * (1/√π - R(1/y²)/y²)/y ≈ erfcx(y) for y > 4. The DO 240 loop of CALERF, unrolled.
+     */
+    private static double erfcx_third_interval(final double y) {
+        final double ysq = ONE / (y * y);
+        final double xnum = ((((P5 * ysq + P0) * ysq + P1) * ysq + P2) * ysq + P3) * ysq;
+        final double xden = ((((ysq + Q0) * ysq + Q1) * ysq + Q2) * ysq + Q3) * ysq;
+        return (SQRPI - ysq * (xnum + P4) / (xden + Q4)) / y;
+    }
+
+    /**
+     * exp(-y²) as CALERF computes it, i.e., EXP(-YSQ*YSQ) * EXP(-DEL) with YSQ = AINT(Y*SIXTEN)/SIXTEN.
+     */
+    private static double exp_minus_square(final double y) {
+        final double ysq = d_int(y * SIXTEEN) / SIXTEEN, del = (y - ysq) * (y + ysq);
+        return exp(-ysq * ysq) * exp(-del);
+    }
+
+    /**
+     * 2·exp(x²) as CALERF computes it for XNEG <= x < 0, i.e., (Y+Y) with Y = EXP(YSQ*YSQ) * EXP(DEL).
+     */
+    private static double twice_exp_square(final double x) {
+        final double ysq = d_int(x * SIXTEEN) / SIXTEEN, del = (x - ysq) * (x + ysq);
+        final double y = exp(ysq * ysq) * exp(del);
+        return y + y;
+    }
+
     /*<       SUBROUTINE CALERF(ARG,RESULT,JINT) >*/
     public static double calerf(double x, final int jint) {
 
-        double y, del, ysq, xden, xnum, result;
+        double y, del, ysq, result;
 
    /* ------------------------------------------------------------------ */
    /* This packet evaluates  erf(x),  erfc(x),  and  exp(x*x)*erfc(x) */
@@ -131,7 +210,8 @@ public class ErfCody {
    /*<       INTEGER I,JINT >*/
    /* S    REAL */
    /*<    >*/
-   /*<       DIMENSION A(5),B(4),C(9),D(8),P(6),Q(5) >*/
+   /* The coefficient arrays A, B, C, D, P and Q are individual constants, see erf_first_interval() and the other */
+   /* interval functions. */
    /* ------------------------------------------------------------------ */
    /*  Mathematical finalants */
    /* ------------------------------------------------------------------ */
@@ -196,21 +276,8 @@ public class ErfCody {
             if (y > XSMALL) {
                 ysq = y * y;
             }
-      /*<             XNUM = A(5)*YSQ >*/
-            xnum = A[4] * ysq;
-      /*<             XDEN = YSQ >*/
-            xden = ysq;
-      /*<             DO 20 I = 1, 3 >*/
-            for (int i__ = 1; i__ <= 3; ++i__) {
-         /*<                XNUM = (XNUM + A(I)) * YSQ >*/
-                xnum = (xnum + A[i__ - 1]) * ysq;
-         /*<                XDEN = (XDEN + B(I)) * YSQ >*/
-                xden = (xden + B[i__ - 1]) * ysq;
-         /*<    20       CONTINUE >*/
-         /* L20: */
-            }
-      /*<             RESULT = X * (XNUM + A(4)) / (XDEN + B(4)) >*/
-            result = x * (xnum + A[3]) / (xden + B[3]);
+      /* RESULT = X * (XNUM + A(4)) / (XDEN + B(4)) after the DO 20 loop, with the loop unrolled into Horner form. */
+            result = erf_first_interval(x, ysq);
       /*<             IF (JINT .NE. 0) RESULT = ONE - RESULT >*/
             if (jint != 0) {
                 result = ONE - result;
@@ -226,21 +293,8 @@ public class ErfCody {
       /* ------------------------------------------------------------------ */
       /*<          ELSE IF (Y .LE. FOUR) THEN >*/
         } else if (y <= FOUR) {
-      /*<             XNUM = C(9)*Y >*/
-            xnum = C[8] * y;
-      /*<             XDEN = Y >*/
-            xden = y;
-      /*<             DO 120 I = 1, 7 >*/
-            for (int i__ = 1; i__ <= 7; ++i__) {
-         /*<                XNUM = (XNUM + C(I)) * Y >*/
-                xnum = (xnum + C[i__ - 1]) * y;
-         /*<                XDEN = (XDEN + D(I)) * Y >*/
-                xden = (xden + D[i__ - 1]) * y;
-         /*<   120       CONTINUE >*/
-         /* L120: */
-            }
-      /*<             RESULT = (XNUM + C(8)) / (XDEN + D(8)) >*/
-            result = (xnum + C[7]) / (xden + D[7]);
+      /* RESULT = (XNUM + C(8)) / (XDEN + D(8)) after the DO 120 loop, with the loop unrolled into Horner form. */
+            result = erfcx_second_interval(y);
       /*<             IF (JINT .NE. 2) THEN >*/
             if (jint != 2) {
          /*<                YSQ = AINT(Y*SIXTEN)/SIXTEN >*/
@@ -279,24 +333,9 @@ public class ErfCody {
          /*<             END IF >*/
             }
       /*<             YSQ = ONE / (Y * Y) >*/
-            ysq = ONE / (y * y);
-      /*<             XNUM = P(6)*YSQ >*/
-            xnum = P[5] * ysq;
-      /*<             XDEN = YSQ >*/
-            xden = ysq;
-      /*<             DO 240 I = 1, 4 >*/
-            for (int i__ = 1; i__ <= 4; ++i__) {
-         /*<                XNUM = (XNUM + P(I)) * YSQ >*/
-                xnum = (xnum + P[i__ - 1]) * ysq;
-         /*<                XDEN = (XDEN + Q(I)) * YSQ >*/
-                xden = (xden + Q[i__ - 1]) * ysq;
-         /*<   240       CONTINUE >*/
-         /* L240: */
-            }
-      /*<             RESULT = YSQ *(XNUM + P(5)) / (XDEN + Q(5)) >*/
-            result = ysq * (xnum + P[4]) / (xden + Q[4]);
-      /*<             RESULT = (SQRPI -  RESULT) / Y >*/
-            result = (SQRPI - result) / y;
+      /* RESULT = (SQRPI - YSQ * (XNUM + P(5)) / (XDEN + Q(5))) / Y with YSQ = ONE / (Y * Y) after the DO 240 loop, with */
+      /* the loop unrolled into Horner form. */
+            result = erfcx_third_interval(y);
       /*<             IF (JINT .NE. 2) THEN >*/
             if (jint != 2) {
          /*<                YSQ = AINT(Y*SIXTEN)/SIXTEN >*/
@@ -433,5 +472,69 @@ public class ErfCody {
    /*<       END >*/
     } /* derfcx_ */
 
+    /**
+     * out[i] = erfc_cody(in[i]) for i = offset, ..., offset+length-1, bit for bit.
+     * <p>
+     * Each element dispatches only on its interval, straight into the unrolled rational approximation for it, without
+     * going through the JINT switches of calerf().
+     */
+    public static void erfc_cody(final double[] in, final double[] out, final int offset, final int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            final double x = in[i], y = abs(x);
+            if (y <= THRESH) {
+                out[i] = ONE - erf_first_interval(x, y > XSMALL ? y * y : ZERO);
+                continue;
+            }
+            final double result;
+            if (y <= FOUR)
+                result = exp_minus_square(y) * erfcx_second_interval(y);
+            else if (y >= XBIG)
+                result = ZERO;
+            else
+                result = exp_minus_square(y) * erfcx_third_interval(y);
+            out[i] = x < ZERO ? TWO - result : result;
+        }
+    }
+
+    public static void erfc_cody(final double[] in, final double[] out) {
+        erfc_cody(in, out, 0, in.length);
+    }
+
+    /**
+     * out[i] = erfcx_cody(in[i]) for i = offset, ..., offset+length-1, bit for bit.
+     * <p>
+     * Each element dispatches only on its interval, straight into the unrolled rational approximation for it, without
+     * going through the JINT switches of calerf().
+     */
+    public static void erfcx_cody(final double[] in, final double[] out, final int offset, final int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            final double x = in[i], y = abs(x);
+            if (y <= THRESH) {
+                final double ysq = y > XSMALL ? y * y : ZERO;
+                out[i] = exp(ysq) * (ONE - erf_first_interval(x, ysq));
+                continue;
+            }
+            final double result;
+            if (y <= FOUR)
+                result = erfcx_second_interval(y);
+            else if (y >= XMAX)
+                result = ZERO;
+            else if (y >= XHUGE)
+                result = SQRPI / y;
+            else
+                result = erfcx_third_interval(y);
+            if (x < ZERO)
+                out[i] = x < XNEG ? XINF : twice_exp_square(x) - result;
+            else
+                out[i] = result;
+        }
+    }
+
+    public static void erfcx_cody(final double[] in, final double[] out) {
+        erfcx_cody(in, out, 0, in.length);
+    }
+
 
 }
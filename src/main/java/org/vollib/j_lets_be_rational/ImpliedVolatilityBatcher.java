@@ -0,0 +1,188 @@
+package org.vollib.j_lets_be_rational;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A micro-batching implied volatility stage for tick streams: quotes submitted one at a time are gathered into batches,
+ * solved by the batch form of LetsBeRational.implied_volatility_from_a_transformed_rational_guess(), and handed to a
+ * Sink batch by batch, in submission order.
+ * <p>
+ * A batch is solved as soon as it holds max_batch_size quotes, or max_latency after its first quote was submitted,
+ * whichever comes first, so that a quiet stream is not held back waiting for a full batch. Solving and emitting run on
+ * the stage's own thread. A fixed number of batches circulates between the submitting threads and that thread, which
+ * provides the back-pressure: when the sink falls behind, submit() blocks until a batch has been emitted and is free
+ * again.
+ * <p>
+ * This is the Java 8 form of a java.util.concurrent.Flow.Processor: a Flow.Subscriber of quotes can call submit() from
+ * onNext() and request the next quote when it returns, and a Sink can forward the results to a
+ * java.util.concurrent.SubmissionPublisher, whose blocking submit() then propagates the downstream demand.
+ */
+public final class ImpliedVolatilityBatcher implements AutoCloseable {
+
+    /**
+     * Receives the solved batches, on the stage's thread. The arrays are reused for later batches once on_batch()
+     * returns, so their contents must be copied if they are needed after that.
+     */
+    public interface Sink {
+        /**
+         * @param id         the ids of the quotes, as passed to submit()
+         * @param volatility the implied volatilities, or VOLATILITY_VALUE_TO_SIGNAL_* values
+         * @param status     the IMPLIED_VOLATILITY_STATUS_* codes
+         * @param length     the number of quotes in the batch, which occupy the elements 0, ..., length-1
+         */
+        void on_batch(long[] id, double[] volatility, int[] status, int length);
+    }
+
+    public static final int DEFAULT_BATCHES_IN_FLIGHT = 4;
+
+    private static final class Batch {
+        final QuoteChunk quotes;
+        final long[] id;
+        long deadline;
+
+        Batch(int capacity) {
+            quotes = new QuoteChunk(capacity);
+            id = new long[capacity];
+        }
+    }
+
+    private final int max_batch_size;
+    private final long max_latency_nanos;
+    private final Sink sink;
+    private final ArrayDeque<Batch> free = new ArrayDeque<>(), ready = new ArrayDeque<>();
+    private final Thread thread;
+    private Batch filling;
+    private boolean closed;
+    private Throwable failure;
+
+    /**
+     * @param max_batch_size    the number of quotes at which a batch is solved
+     * @param max_latency       the time after its first quote at which a batch is solved even if not full
+     * @param unit              the unit of max_latency
+     * @param batches_in_flight the number of batches shared by the submitting threads and the stage's thread, at least 2
+     *                          for submitting to continue while a batch is solved
+     * @param sink              the receiver of the solved batches
+     */
+    public ImpliedVolatilityBatcher(int max_batch_size, long max_latency, TimeUnit unit, int batches_in_flight, Sink sink) {
+        if (max_batch_size < 1)
+            throw new IllegalArgumentException("The maximum batch size must be positive, got " + max_batch_size + ".");
+        if (max_latency < 0)
+            throw new IllegalArgumentException("The maximum latency must not be negative, got " + max_latency + ".");
+        if (batches_in_flight < 1)
+            throw new IllegalArgumentException("The number of batches in flight must be positive, got " + batches_in_flight + ".");
+        this.max_batch_size = max_batch_size;
+        this.max_latency_nanos = unit.toNanos(max_latency);
+        this.sink = sink;
+        for (int i = 0; i < batches_in_flight; ++i)
+            free.add(new Batch(max_batch_size));
+        thread = new Thread(this::run, "implied-volatility-batcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public ImpliedVolatilityBatcher(int max_batch_size, long max_latency, TimeUnit unit, Sink sink) {
+        this(max_batch_size, max_latency, unit, DEFAULT_BATCHES_IN_FLIGHT, sink);
+    }
+
+    private void check_open() {
+        if (failure != null)
+            throw new IllegalStateException("The sink failed.", failure);
+        if (closed)
+            throw new IllegalStateException("The batcher is closed.");
+    }
+
+    /**
+     * Adds a quote to the current batch, blocking while all batches are being solved or emitted.
+     *
+     * @param id an identifier of the quote, passed on to the sink with its result
+     * @throws IllegalStateException if the batcher is closed or the sink has thrown
+     */
+    public synchronized void submit(long id, double price, double F, double K, double T, double q /* q=±1 */) throws InterruptedException {
+        check_open();
+        while (filling == null && free.isEmpty()) {
+            wait();
+            check_open();
+        }
+        if (filling == null) {
+            filling = free.poll();
+            filling.quotes.size = 0;
+            filling.deadline = System.nanoTime() + max_latency_nanos;
+            notifyAll();
+        }
+        final QuoteChunk quotes = filling.quotes;
+        final int i = quotes.size++;
+        filling.id[i] = id;
+        quotes.price[i] = price;
+        quotes.F[i] = F;
+        quotes.K[i] = K;
+        quotes.T[i] = T;
+        quotes.q[i] = q;
+        if (quotes.size == max_batch_size) {
+            ready.add(filling);
+            filling = null;
+            notifyAll();
+        }
+    }
+
+    /**
+     * @return the next batch to solve, or null once closed and drained
+     */
+    private synchronized Batch next() throws InterruptedException {
+        while (true) {
+            if (!ready.isEmpty())
+                return ready.poll();
+            if (filling != null) {
+                final long remaining = filling.deadline - System.nanoTime();
+                if (remaining <= 0 || closed) {
+                    final Batch batch = filling;
+                    filling = null;
+                    return batch;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } else if (closed) {
+                return null;
+            } else {
+                wait();
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            for (Batch batch; (batch = next()) != null; ) {
+                final QuoteChunk quotes = batch.quotes;
+                LetsBeRational.implied_volatility_from_a_transformed_rational_guess(quotes.price, quotes.F, quotes.K, quotes.T, quotes.q, quotes.volatility, quotes.status, 0, quotes.size);
+                sink.on_batch(batch.id, quotes.volatility, quotes.status, quotes.size);
+                synchronized (this) {
+                    free.add(batch);
+                    notifyAll();
+                }
+            }
+        } catch (Throwable t) {
+            synchronized (this) {
+                failure = t;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Solves and emits any quotes still pending, then stops the stage's thread.
+     *
+     * @throws IllegalStateException if the sink has thrown
+     */
+    @Override
+    public void close() throws InterruptedException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        thread.join();
+        synchronized (this) {
+            if (failure != null)
+                throw new IllegalStateException("The sink failed.", failure);
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package org.vollib.j_lets_be_rational;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe memoisation layer in front of
+ * LetsBeRational.normalised_implied_volatility_from_a_transformed_rational_guess_nothrow(), for feeds in which the same
+ * option arrives repeatedly, e.g. from several venues or re-sent unchanged.
+ * <p>
+ * Results are keyed on the exact bit patterns of (beta, x, q) and held in primitive arrays, with nothing boxed. The table
+ * is set-associative: a key hashes to a bucket of WAYS slots, which are probed in turn, and when the bucket is full the
+ * CLOCK algorithm evicts a slot not hit since the bucket's hand last passed it. Buckets are guarded by striped locks,
+ * which are never held while solving, so concurrent misses on the same key may both solve it, but always store the
+ * same result. A hit returns the bit-identical result of the solver.
+ */
+public final class ImpliedVolatilityCache {
+
+    public static final int WAYS = 8;
+    private static final int LOCK_STRIPES = 64;
+
+    private static final byte OCCUPIED = 1, REFERENCED = 2;
+
+    private final long[] beta_bits, x_bits, q_bits;
+    private final double[] results;
+    private final byte[] state;
+    private final byte[] hands;
+    private final Object[] locks;
+    private final int bucket_shift;
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+
+    /**
+     * @param capacity the maximum number of results held, rounded up to a power of two of at least WAYS
+     */
+    public ImpliedVolatilityCache(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30)
+            throw new IllegalArgumentException("The capacity must be between 1 and 2^30, got " + capacity + ".");
+        final int slots = Math.max(WAYS, 1 << (32 - Integer.numberOfLeadingZeros(capacity - 1)));
+        final int buckets = slots / WAYS;
+        bucket_shift = 64 - Integer.numberOfTrailingZeros(buckets);
+        beta_bits = new long[slots];
+        x_bits = new long[slots];
+        q_bits = new long[slots];
+        results = new double[slots];
+        state = new byte[slots];
+        hands = new byte[buckets];
+        locks = new Object[Math.min(buckets, LOCK_STRIPES)];
+        for (int i = 0; i < locks.length; ++i)
+            locks[i] = new Object();
+    }
+
+    public int capacity() {
+        return state.length;
+    }
+
+    private int bucket(long beta, long x, long q) {
+        if (hands.length == 1)
+            return 0;
+        // Fibonacci hashing of a mix of the three keys.
+        final long h = (beta * 0x9E3779B97F4A7C15L + x) * 0xC2B2AE3D27D4EB4FL + q;
+        return (int) ((h * 0x9E3779B97F4A7C15L) >>> bucket_shift);
+    }
+
+    /**
+     * @return the cached or freshly solved result of
+     * LetsBeRational.normalised_implied_volatility_from_a_transformed_rational_guess_nothrow(beta, x, q)
+     */
+    public double normalised_implied_volatility_from_a_transformed_rational_guess_nothrow(double beta, double x, double q /* q=±1 */) {
+        final long b = Double.doubleToRawLongBits(beta), y = Double.doubleToRawLongBits(x), r = Double.doubleToRawLongBits(q);
+        final int bucket = bucket(b, y, r), first = bucket * WAYS;
+        final Object lock = locks[bucket & (locks.length - 1)];
+        synchronized (lock) {
+            for (int i = first; i < first + WAYS; ++i) {
+                if ((state[i] & OCCUPIED) != 0 && beta_bits[i] == b && x_bits[i] == y && q_bits[i] == r) {
+                    state[i] |= REFERENCED;
+                    hits.increment();
+                    return results[i];
+                }
+            }
+        }
+        misses.increment();
+        final double result = LetsBeRational.normalised_implied_volatility_from_a_transformed_rational_guess_nothrow(beta, x, q);
+        synchronized (lock) {
+            int slot = -1;
+            for (int i = first; i < first + WAYS; ++i) {
+                if ((state[i] & OCCUPIED) == 0) {
+                    if (slot < 0)
+                        slot = i;
+                } else if (beta_bits[i] == b && x_bits[i] == y && q_bits[i] == r) {
+                    return result;  // Inserted by a concurrent miss.
+                }
+            }
+            if (slot < 0) {
+                // CLOCK: clear the referenced bits in turn until an unreferenced slot comes round.
+                int hand = hands[bucket];
+                while ((state[first + hand] & REFERENCED) != 0) {
+                    state[first + hand] &= ~REFERENCED;
+                    hand = (hand + 1) & (WAYS - 1);
+                }
+                slot = first + hand;
+                hands[bucket] = (byte) ((hand + 1) & (WAYS - 1));
+            }
+            beta_bits[slot] = b;
+            x_bits[slot] = y;
+            q_bits[slot] = r;
+            results[slot] = result;
+            state[slot] = OCCUPIED;
+        }
+        return result;
+    }
+
+    public double normalised_implied_volatility_from_a_transformed_rational_guess(double beta, double x, double q /* q=±1 */) throws VolatilityValueException {
+        return LetsBeRational.checked_implied_volatility_output(normalised_implied_volatility_from_a_transformed_rational_guess_nothrow(beta, x, q));
+    }
+
+    /**
+     * @return the number of calls answered from the cache since construction or the last reset_statistics()
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of calls that had to be solved since construction or the last reset_statistics()
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return hits()/(hits()+misses()), or 0 before the first call
+     */
+    public double hit_rate() {
+        final long h = hits.sum(), m = misses.sum();
+        return h + m == 0 ? 0 : (double) h / (h + m);
+    }
+
+    public void reset_statistics() {
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Evicts all results. The statistics are kept.
+     */
+    public void clear() {
+        for (int stripe = 0; stripe < locks.length; ++stripe) {
+            synchronized (locks[stripe]) {
+                for (int bucket = stripe; bucket < hands.length; bucket += locks.length) {
+                    Arrays.fill(state, bucket * WAYS, (bucket + 1) * WAYS, (byte) 0);
+                    hands[bucket] = 0;
+                }
+            }
+        }
+    }
+
+}
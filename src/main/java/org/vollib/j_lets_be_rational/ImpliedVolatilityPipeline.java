@@ -0,0 +1,146 @@
+package org.vollib.j_lets_be_rational;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams quotes from a QuoteReader through the implied volatility solver to a QuoteWriter in fixed-size chunks.
+ * <p>
+ * Reading, solving and writing overlap: a reader thread fills chunks, the calling thread solves them, and a writer
+ * thread writes them out, in input order. A fixed number of chunks circulates between the three stages, which provides
+ * the back-pressure: when the writer falls behind, the solver and then the reader block until a chunk is written and
+ * free again. Memory use is thus bounded by chunks_in_flight chunks whatever the size of the input.
+ * <p>
+ * The results are those of LetsBeRational.implied_volatility_from_a_transformed_rational_guess(double[], ...), with
+ * out-of-range quotes signalled by their status code rather than by VolatilityValueException.
+ */
+public class ImpliedVolatilityPipeline {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+    public static final int DEFAULT_CHUNKS_IN_FLIGHT = 4;
+
+    // Marks the end of the stream in the queues between the stages.
+    private static final QuoteChunk END = new QuoteChunk(1);
+
+    private final int chunk_size, chunks_in_flight;
+
+    public ImpliedVolatilityPipeline() {
+        this(DEFAULT_CHUNK_SIZE, DEFAULT_CHUNKS_IN_FLIGHT);
+    }
+
+    /**
+     * @param chunk_size       the number of quotes per chunk
+     * @param chunks_in_flight the number of chunks shared by the stages; at least three for all of them to be busy
+     */
+    public ImpliedVolatilityPipeline(int chunk_size, int chunks_in_flight) {
+        if (chunk_size < 1)
+            throw new IllegalArgumentException("The chunk size must be positive, got " + chunk_size + ".");
+        if (chunks_in_flight < 1)
+            throw new IllegalArgumentException("The number of chunks in flight must be positive, got " + chunks_in_flight + ".");
+        this.chunk_size = chunk_size;
+        this.chunks_in_flight = chunks_in_flight;
+    }
+
+    /**
+     * Solves every quote of reader and writes the results to writer, which is flushed but neither is closed.
+     *
+     * @return the number of quotes processed
+     * @throws IOException if reading or writing fails, in which case the pipeline stops after the chunks in flight
+     */
+    public long run(QuoteReader reader, QuoteWriter writer) throws IOException, InterruptedException {
+        return run(reader, writer, null);
+    }
+
+    /**
+     * As run(QuoteReader, QuoteWriter) but solving each chunk on pool, see ParallelImpliedVolatility, unless pool is
+     * null.
+     */
+    public long run(final QuoteReader reader, final QuoteWriter writer, ForkJoinPool pool) throws IOException, InterruptedException {
+        final BlockingQueue<QuoteChunk> free = new ArrayBlockingQueue<>(chunks_in_flight);
+        // One more slot than there are chunks so that END can always be queued without blocking.
+        final BlockingQueue<QuoteChunk> read = new ArrayBlockingQueue<>(chunks_in_flight + 1), solved = new ArrayBlockingQueue<>(chunks_in_flight + 1);
+        for (int i = 0; i < chunks_in_flight; ++i)
+            free.add(new QuoteChunk(chunk_size));
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        final Thread reader_thread = new Thread(() -> {
+            try {
+                while (true) {
+                    final QuoteChunk chunk = free.take();
+                    if (failure.get() != null)
+                        break;
+                    chunk.size = reader.read(chunk);
+                    if (chunk.size <= 0)
+                        break;
+                    read.put(chunk);
+                    if (chunk.size < chunk.capacity())
+                        break;
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                read.add(END);
+            }
+        }, "implied-volatility-pipeline-reader");
+
+        final Thread writer_thread = new Thread(() -> {
+            try {
+                for (QuoteChunk chunk; (chunk = solved.take()) != END; free.put(chunk)) {
+                    if (failure.get() == null) {
+                        try {
+                            writer.write(chunk);
+                        } catch (Throwable t) {
+                            failure.compareAndSet(null, t);
+                        }
+                    }
+                }
+                if (failure.get() == null)
+                    writer.flush();
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        }, "implied-volatility-pipeline-writer");
+
+        reader_thread.setDaemon(true);
+        writer_thread.setDaemon(true);
+        reader_thread.start();
+        writer_thread.start();
+        long count = 0;
+        try {
+            for (QuoteChunk chunk; (chunk = read.take()) != END; solved.put(chunk)) {
+                if (failure.get() != null)
+                    continue;
+                try {
+                    if (pool == null)
+                        LetsBeRational.implied_volatility_from_a_transformed_rational_guess(chunk.price, chunk.F, chunk.K, chunk.T, chunk.q, chunk.volatility, chunk.status, 0, chunk.size);
+                    else
+                        ParallelImpliedVolatility.implied_volatility_from_a_transformed_rational_guess(pool, ParallelImpliedVolatility.DEFAULT_GRAIN_SIZE, chunk.price, chunk.F, chunk.K, chunk.T, chunk.q, chunk.volatility, chunk.status, 0, chunk.size);
+                    count += chunk.size;
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }
+            solved.add(END);
+            reader_thread.join();
+            writer_thread.join();
+        } catch (InterruptedException e) {
+            reader_thread.interrupt();
+            writer_thread.interrupt();
+            throw e;
+        }
+        final Throwable t = failure.get();
+        if (t == null)
+            return count;
+        if (t instanceof IOException)
+            throw (IOException) t;
+        if (t instanceof RuntimeException)
+            throw (RuntimeException) t;
+        if (t instanceof Error)
+            throw (Error) t;
+        throw new IOException(t);
+    }
+
+}
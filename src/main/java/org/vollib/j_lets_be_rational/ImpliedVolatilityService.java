@@ -0,0 +1,240 @@
+package org.vollib.j_lets_be_rational;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An embeddable request/response facade in front of the implied volatility solver, for consumers that need implied
+ * volatilities of single options on demand from many threads.
+ * <p>
+ * Requests join a queue that is drained by at most parallelism workers, each of which takes up to max_batch_size
+ * waiting requests at a time and solves them by one call of the batch form of
+ * LetsBeRational.implied_volatility_from_a_transformed_rational_guess(). Under light load a request is solved alone as
+ * soon as it arrives; under contention, the requests that arrive while the workers are busy are coalesced into batches.
+ * The results are bit-identical to the scalar solver's.
+ * <p>
+ * The workers run on an ExecutorService, which may be supplied by the caller. The default one uses a virtual thread
+ * per task on JDK 21 and later, and a fixed pool of parallelism daemon threads on older JDKs. The blocking methods are
+ * cheap to call from virtual threads.
+ */
+public final class ImpliedVolatilityService implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private static final class Request extends CompletableFuture<Double> {
+        final double price, F, K, T, q;
+
+        Request(double price, double F, double K, double T, double q) {
+            this.price = price;
+            this.F = F;
+            this.K = K;
+            this.T = T;
+            this.q = q;
+        }
+    }
+
+    /**
+     * The working storage of one worker. There are parallelism of them, so that a worker never allocates.
+     */
+    private static final class Batch {
+        final QuoteChunk quotes;
+        final Request[] requests;
+
+        Batch(int capacity) {
+            quotes = new QuoteChunk(capacity);
+            requests = new Request[capacity];
+        }
+    }
+
+    private final ExecutorService executor;
+    private final boolean owns_executor;
+    private final int parallelism, max_batch_size;
+    private final ConcurrentLinkedQueue<Request> pending = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Batch> batches = new ConcurrentLinkedQueue<>();
+    // The number of workers started and not yet finished, which is never more than the number of batches.
+    private final AtomicInteger workers = new AtomicInteger();
+    private final LongAdder requests_solved = new LongAdder(), batches_solved = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * @param executor       runs the workers, and is not shut down by close()
+     * @param parallelism    the maximum number of workers running at a time
+     * @param max_batch_size the maximum number of requests solved by a worker at a time
+     */
+    public ImpliedVolatilityService(ExecutorService executor, int parallelism, int max_batch_size) {
+        this(executor, false, parallelism, max_batch_size);
+    }
+
+    /**
+     * Uses the default executor, which is shut down by close().
+     */
+    public ImpliedVolatilityService(int parallelism, int max_batch_size) {
+        this(default_executor(parallelism), true, parallelism, max_batch_size);
+    }
+
+    /**
+     * Uses the default executor with one worker per available processor.
+     */
+    public ImpliedVolatilityService() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    private ImpliedVolatilityService(ExecutorService executor, boolean owns_executor, int parallelism, int max_batch_size) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be positive, got " + parallelism + ".");
+        if (max_batch_size < 1)
+            throw new IllegalArgumentException("The maximum batch size must be positive, got " + max_batch_size + ".");
+        this.executor = executor;
+        this.owns_executor = owns_executor;
+        this.parallelism = parallelism;
+        this.max_batch_size = max_batch_size;
+        for (int i = 0; i < parallelism; ++i)
+            batches.add(new Batch(max_batch_size));
+    }
+
+    /**
+     * @return an executor with a virtual thread per task if the JDK has them, else a fixed pool of daemon threads
+     */
+    private static ExecutorService default_executor(int parallelism) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            final AtomicInteger count = new AtomicInteger();
+            final ThreadFactory factory = runnable -> {
+                final Thread thread = new Thread(runnable, "implied-volatility-service-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newFixedThreadPool(parallelism, factory);
+        }
+    }
+
+    /**
+     * @return whether the JDK has virtual threads, which the default executor then uses
+     */
+    public static boolean has_virtual_threads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Queues a request.
+     *
+     * @return completed with the implied volatility, or a VOLATILITY_VALUE_TO_SIGNAL_* value, as returned by
+     * LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow()
+     * @throws RejectedExecutionException if the service is closed
+     */
+    public CompletableFuture<Double> submit(double price, double F, double K, double T, double q /* q=±1 */) {
+        if (closed)
+            throw new RejectedExecutionException("The service is closed.");
+        final Request request = new Request(price, F, K, T, q);
+        pending.add(request);
+        start_worker();
+        return request;
+    }
+
+    /**
+     * Blocks until the request is solved.
+     */
+    public double implied_volatility_from_a_transformed_rational_guess_nothrow(double price, double F, double K, double T, double q /* q=±1 */) {
+        return submit(price, F, K, T, q).join();
+    }
+
+    public double implied_volatility_from_a_transformed_rational_guess(double price, double F, double K, double T, double q /* q=±1 */) throws VolatilityValueException {
+        return LetsBeRational.checked_implied_volatility_output(implied_volatility_from_a_transformed_rational_guess_nothrow(price, F, K, T, q));
+    }
+
+    private boolean acquire_worker() {
+        for (int w = workers.get(); w < parallelism; w = workers.get()) {
+            if (workers.compareAndSet(w, w + 1))
+                return true;
+        }
+        return false;
+    }
+
+    private void start_worker() {
+        if (!acquire_worker())
+            return;  // All workers are busy, and will pick up the request.
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            workers.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void drain() {
+        Batch batch = batches.poll();
+        while (true) {
+            final QuoteChunk quotes = batch.quotes;
+            final Request[] requests = batch.requests;
+            int n = 0;
+            for (Request request; n < max_batch_size && (request = pending.poll()) != null; ++n) {
+                requests[n] = request;
+                quotes.price[n] = request.price;
+                quotes.F[n] = request.F;
+                quotes.K[n] = request.K;
+                quotes.T[n] = request.T;
+                quotes.q[n] = request.q;
+            }
+            if (n > 0) {
+                LetsBeRational.implied_volatility_from_a_transformed_rational_guess(quotes.price, quotes.F, quotes.K, quotes.T, quotes.q, quotes.volatility, quotes.status, 0, n);
+                // Counted first, so that a client sees its request in the statistics once it has the result.
+                requests_solved.add(n);
+                batches_solved.increment();
+                for (int i = 0; i < n; ++i) {
+                    final Request request = requests[i];
+                    requests[i] = null;
+                    request.complete(quotes.volatility[i]);
+                }
+                continue;
+            }
+            // Release the batch before the worker, so that a worker started meanwhile finds a batch.
+            batches.add(batch);
+            workers.decrementAndGet();
+            // A request queued while this worker was counted as busy started no worker of its own.
+            if (pending.isEmpty() || !acquire_worker())
+                return;
+            batch = batches.poll();
+        }
+    }
+
+    /**
+     * @return the number of requests solved
+     */
+    public long requests() {
+        return requests_solved.sum();
+    }
+
+    /**
+     * @return the number of batch solves, so that requests()/batches() is the mean number of requests coalesced
+     */
+    public long batches() {
+        return batches_solved.sum();
+    }
+
+    /**
+     * Rejects further requests. Requests already queued are still solved, and if the service owns its executor, close()
+     * waits for them and then shuts the executor down.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        if (owns_executor) {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+    }
+
+}
@@ -1,9 +1,13 @@
 package org.vollib.j_lets_be_rational;
 
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
 import static java.lang.Math.abs;
 import static java.lang.Math.exp;
 import static java.lang.Math.log;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.Math.pow;
 import static java.lang.Math.sqrt;
 
@@ -45,7 +49,13 @@ import static org.vollib.j_lets_be_rational.RationalCubic.rational_cubic_interpo
  */
 public class LetsBeRational {
 
-    private static final int implied_volatility_maximum_iterations = 2;
+    static final int implied_volatility_maximum_iterations = 2;
+
+    // A warm start is trusted only if its first step is within warm_start_first_step_limit·s_guess, and its last step
+    // within warm_start_last_step_limit·s. Householder(3) converges with order four, so the latter leaves an error
+    // that is negligible against the accuracy of the transformed rational guess.
+    static final double warm_start_first_step_limit = 0.125;
+    static final double warm_start_last_step_limit = 1E-4;
 
     /**
      * This weeds out denormalized (a.k.a. 'subnormal') numbers.
@@ -53,19 +63,43 @@ public class LetsBeRational {
      * @param x
      * @return
      */
-    private static boolean is_below_horizon(double x) {
+    static boolean is_below_horizon(double x) {
         return abs(x) < DENORMALIZATION_CUTOFF;
     }
 
-    private static double implied_volatility_output(int count, double volatility) throws VolatilityValueException {
+    private static double implied_volatility_output(int count, double volatility) {
+        if (SolverMetrics.enabled)
+            SolverMetrics.record_iterations(count);
+        return volatility;
+    }
+
+    static double checked_implied_volatility_output(double volatility) throws VolatilityValueException {
         if (volatility == VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM) {
-            throw new VolatilityValueException.AboveMaximumException();
+            throw VolatilityValueException.AboveMaximumException.INSTANCE;
         } else if (volatility == VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC) {
-            throw new VolatilityValueException.BelowIntrinsicException();
+            throw VolatilityValueException.BelowIntrinsicException.INSTANCE;
         }
         return volatility;
     }
 
+    /**
+     * Maps the result of any of the *_nothrow implied volatility functions to one of the IMPLIED_VOLATILITY_STATUS_* codes.
+     *
+     * @param volatility
+     * @return
+     */
+    public static int implied_volatility_status(double volatility) {
+        if (volatility == VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM)
+            return IMPLIED_VOLATILITY_STATUS_ABOVE_MAXIMUM;
+        if (volatility == VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC)
+            return IMPLIED_VOLATILITY_STATUS_BELOW_INTRINSIC;
+        return IMPLIED_VOLATILITY_STATUS_OK;
+    }
+
+    private static boolean is_volatility_signal(double volatility) {
+        return volatility == VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM || volatility == VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC;
+    }
+
     private static double householder_factor(double newton, double halley, double hh3) {
         return (1 + 0.5 * halley * newton) / (1 + newton * (halley + hh3 * newton / 6));
     }
@@ -113,15 +147,22 @@ public class LetsBeRational {
      * @return
      */
     private static double asymptotic_expansion_of_normalized_black_call(double h, double t) {
+        return asymptotic_expansion_of_normalized_black_call(h, t, exp((-0.5 * (h * h + t * t))));
+    }
+
+    /**
+     * As asymptotic_expansion_of_normalized_black_call(h, t) with exp(-(h²+t²)/2) given.
+     */
+    private static double asymptotic_expansion_of_normalized_black_call(double h, double t, double exp_minus_half_h2_plus_t2) {
         final double e = (t / h) * (t / h), r = ((h + t) * (h - t)), q = (h / r) * (h / r);
         // 17th order asymptotic expansion of A(h,t) in q, sufficient for Φ(h) [and thus y(h)] to have relative accuracy of 1.64E-16 for h <= η  with  η:=-10.
         final double asymptotic_expansion_sum = (2.0 + q * (-6.0E0 - 2.0 * e + 3.0 * q * (1.0E1 + e * (2.0E1 + 2.0 * e) + 5.0 * q * (-1.4E1 + e * (-7.0E1 + e * (-4.2E1 - 2.0 * e)) + 7.0 * q * (1.8E1 + e * (1.68E2 + e * (2.52E2 + e * (7.2E1 + 2.0 * e))) + 9.0 * q * (-2.2E1 + e * (-3.3E2 + e * (-9.24E2 + e * (-6.6E2 + e * (-1.1E2 - 2.0 * e)))) + 1.1E1 * q * (2.6E1 + e * (5.72E2 + e * (2.574E3 + e * (3.432E3 + e * (1.43E3 + e * (1.56E2 + 2.0 * e))))) + 1.3E1 * q * (-3.0E1 + e * (-9.1E2 + e * (-6.006E3 + e * (-1.287E4 + e * (-1.001E4 + e * (-2.73E3 + e * (-2.1E2 - 2.0 * e)))))) + 1.5E1 * q * (3.4E1 + e * (1.36E3 + e * (1.2376E4 + e * (3.8896E4 + e * (4.862E4 + e * (2.4752E4 + e * (4.76E3 + e * (2.72E2 + 2.0 * e))))))) + 1.7E1 * q * (-3.8E1 + e * (-1.938E3 + e * (-2.3256E4 + e * (-1.00776E5 + e * (-1.84756E5 + e * (-1.51164E5 + e * (-5.4264E4 + e * (-7.752E3 + e * (-3.42E2 - 2.0 * e)))))))) + 1.9E1 * q * (4.2E1 + e * (2.66E3 + e * (4.0698E4 + e * (2.3256E5 + e * (5.8786E5 + e * (7.05432E5 + e * (4.0698E5 + e * (1.08528E5 + e * (1.197E4 + e * (4.2E2 + 2.0 * e))))))))) + 2.1E1 * q * (-4.6E1 + e * (-3.542E3 + e * (-6.7298E4 + e * (-4.90314E5 + e * (-1.63438E6 + e * (-2.704156E6 + e * (-2.288132E6 + e * (-9.80628E5 + e * (-2.01894E5 + e * (-1.771E4 + e * (-5.06E2 - 2.0 * e)))))))))) + 2.3E1 * q * (5.0E1 + e * (4.6E3 + e * (1.0626E5 + e * (9.614E5 + e * (4.08595E6 + e * (8.9148E6 + e * (1.04006E7 + e * (6.53752E6 + e * (2.16315E6 + e * (3.542E5 + e * (2.53E4 + e * (6.0E2 + 2.0 * e))))))))))) + 2.5E1 * q * (-5.4E1 + e * (-5.85E3 + e * (-1.6146E5 + e * (-1.77606E6 + e * (-9.37365E6 + e * (-2.607579E7 + e * (-4.01166E7 + e * (-3.476772E7 + e * (-1.687257E7 + e * (-4.44015E6 + e * (-5.9202E5 + e * (-3.51E4 + e * (-7.02E2 - 2.0 * e)))))))))))) + 2.7E1 * q * (5.8E1 + e * (7.308E3 + e * (2.3751E5 + e * (3.12156E6 + e * (2.003001E7 + e * (6.919458E7 + e * (1.3572783E8 + e * (1.5511752E8 + e * (1.0379187E8 + e * (4.006002E7 + e * (8.58429E6 + e * (9.5004E5 + e * (4.7502E4 + e * (8.12E2 + 2.0 * e))))))))))))) + 2.9E1 * q * (-6.2E1 + e * (-8.99E3 + e * (-3.39822E5 + e * (-5.25915E6 + e * (-4.032015E7 + e * (-1.6934463E8 + e * (-4.1250615E8 + e * (-6.0108039E8 + e * (-5.3036505E8 + e * (-2.8224105E8 + e * (-8.870433E7 + e * (-1.577745E7 + e * (-1.472562E6 + e * (-6.293E4 + e * (-9.3E2 - 2.0 * e)))))))))))))) + 3.1E1 * q * (6.6E1 + e * (1.0912E4 + e * (4.74672E5 + e * (8.544096E6 + e * (7.71342E7 + e * (3.8707344E8 + e * (1.14633288E9 + e * (2.07431664E9 + e * (2.33360622E9 + e * (1.6376184E9 + e * (7.0963464E8 + e * (1.8512208E8 + e * (2.7768312E7 + e * (2.215136E6 + e * (8.184E4 + e * (1.056E3 + 2.0 * e))))))))))))))) + 3.3E1 * (-7.0E1 + e * (-1.309E4 + e * (-6.49264E5 + e * (-1.344904E7 + e * (-1.4121492E8 + e * (-8.344518E8 + e * (-2.9526756E9 + e * (-6.49588632E9 + e * (-9.0751353E9 + e * (-8.1198579E9 + e * (-4.6399188E9 + e * (-1.6689036E9 + e * (-3.67158792E8 + e * (-4.707164E7 + e * (-3.24632E6 + e * (-1.0472E5 + e * (-1.19E3 - 2.0 * e))))))))))))))))) * q)))))))))))))))));
-        final double b = ONE_OVER_SQRT_TWO_PI * exp((-0.5 * (h * h + t * t))) * (t / r) * asymptotic_expansion_sum;
+        final double b = ONE_OVER_SQRT_TWO_PI * exp_minus_half_h2_plus_t2 * (t / r) * asymptotic_expansion_sum;
         return abs(max(b, 0.));
     }
 
     /* η */
-    private static final double asymptotic_expansion_accuracy_threshold = -10;
+    static final double asymptotic_expansion_accuracy_threshold = -10;
 
 
     /**
@@ -192,19 +233,26 @@ public class LetsBeRational {
      * @return
      */
     private static double small_t_expansion_of_normalized_black_call(double h, double t) {
+        return small_t_expansion_of_normalized_black_call(h, t, exp((-0.5 * (h * h + t * t))));
+    }
+
+    /**
+     * As small_t_expansion_of_normalized_black_call(h, t) with exp(-(h²+t²)/2) given.
+     */
+    private static double small_t_expansion_of_normalized_black_call(double h, double t, double exp_minus_half_h2_plus_t2) {
         // Y(h) := Φ(h)/φ(h) = √(π/2)·erfcx(-h/√2)
         // a := 1+h·Y(h)  --- Note that due to h<0, and h·Y(h) -> -1 (from above) as h -> -∞, we also have that a>0 and a -> 0 as h -> -∞
         // w := t² , h2 := h²
         final double a = 1 + h * (0.5 * SQRT_TWO_PI) * erfcx_cody(-ONE_OVER_SQRT_TWO * h), w = t * t, h2 = h * h;
         final double expansion = 2 * t * (a + w * ((-1 + 3 * a + a * h2) / 6 + w * ((-7 + 15 * a + h2 * (-1 + 10 * a + a * h2)) / 120 + w * ((-57 + 105 * a + h2 * (-18 + 105 * a + h2 * (-1 + 21 * a + a * h2))) / 5040 + w * ((-561 + 945 * a + h2 * (-285 + 1260 * a + h2 * (-33 + 378 * a + h2 * (-1 + 36 * a + a * h2)))) / 362880 + w * ((-6555 + 10395 * a + h2 * (-4680 + 17325 * a + h2 * (-840 + 6930 * a + h2 * (-52 + 990 * a + h2 * (-1 + 55 * a + a * h2))))) / 39916800 + ((-89055 + 135135 * a + h2 * (-82845 + 270270 * a + h2 * (-20370 + 135135 * a + h2 * (-1926 + 25740 * a + h2 * (-75 + 2145 * a + h2 * (-1 + 78 * a + a * h2)))))) * w) / 6227020800.0))))));
-        final double b = ONE_OVER_SQRT_TWO_PI * exp((-0.5 * (h * h + t * t))) * expansion;
+        final double b = ONE_OVER_SQRT_TWO_PI * exp_minus_half_h2_plus_t2 * expansion;
         return abs(max(b, 0.0));
     }
 
     /**
      * τ
      */
-    private static final double small_t_expansion_of_normalized_black_threshold = 2 * SIXTEENTH_ROOT_DBL_EPSILON;
+    static final double small_t_expansion_of_normalized_black_threshold = 2 * SIXTEENTH_ROOT_DBL_EPSILON;
 
 
     /**
@@ -267,48 +315,470 @@ public class LetsBeRational {
         return max(intrinsic, (sqrt(F) * sqrt(K)) * normalised_black(log(F / K), sigma * sqrt(T), q));
     }
 
-    private static double[] compute_f_lower_map_and_first_two_derivatives(final double x, final double s) {
-        final double ax = abs(x), z = SQRT_ONE_OVER_THREE * ax / s, y = z * z, s2 = s * s, Phi = norm_cdf(-z), phi = norm_pdf(z);
+    /**
+     * Batch form of black() over a strike grid sharing one forward, expiry and option type, as in a chain: writes
+     * black(F,K[i],sigma[i],T,q) to price[i] for i = offset, ..., offset+length-1.
+     * <p>
+     * √F and √T are computed once for the grid, and in-the-money strikes are mapped to out-of-the-money ones in place
+     * rather than by recursion. Every operation on the path of a strike is the same as in black(), so that the prices
+     * are bit-identical to it.
+     */
+    public static void black(double F, double[] K, double[] sigma, double T, double q /* q=±1 */, double[] price, int offset, int length) {
+        final double sqrt_F = sqrt(F), sqrt_T = sqrt(T);
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            final double k = K[i], intrinsic = abs(max((q < 0 ? k - F : F - k), 0.0));
+            final double b = (sqrt_F * sqrt(k)) * normalised_black(log(F / k), sigma[i] * sqrt_T, q * (F - k) > 0 ? -q : q);
+            // An in-the-money option is its intrinsic value plus the out-of-the-money one, whose intrinsic value is 0.
+            price[i] = q * (F - k) > 0 ? intrinsic + max(0.0, b) : max(intrinsic, b);
+        }
+    }
+
+    /**
+     * Screening-grade form of black() that evaluates q·(F·Φ(q·d1)-K·Φ(q·d2)) with TabulatedNormalDistribution.norm_cdf().
+     * Its absolute error is at most (F+K)·TabulatedNormalDistribution.NORM_CDF_MAXIMUM_ABSOLUTE_ERROR plus rounding, so
+     * that, unlike black(), it has no relative accuracy for far out-of-the-money options. Use it where prices are
+     * compared against a tolerance, not as the objective of an implied volatility solve.
+     */
+    public static double black_using_tabulated_norm_cdf(double F, double K, double sigma, double T, double q /* q=±1 */) {
+        final double intrinsic = abs(max((q < 0 ? K - F : F - K), 0.0)), s = sigma * sqrt(T);
+        if (!(s > 0))
+            return intrinsic;
+        final double d1 = log(F / K) / s + 0.5 * s, d2 = d1 - s;
+        final double b = q < 0 ? K * TabulatedNormalDistribution.norm_cdf(-d2) - F * TabulatedNormalDistribution.norm_cdf(-d1) : F * TabulatedNormalDistribution.norm_cdf(d1) - K * TabulatedNormalDistribution.norm_cdf(d2);
+        return max(intrinsic, b);
+    }
+
+    /**
+     * Black price and sensitivities in one evaluation, written to greeks[offset+GREEKS_PRICE], ...,
+     * greeks[offset+GREEKS_VOLGA]:
+     * <p>
+     * price  =  black(F,K,sigma,T,q)
+     * delta  =  ∂price/∂F          =  q·Φ(q·d1)
+     * gamma  =  ∂²price/∂F²        =  φ(d1)/(F·σ·√T)
+     * vega   =  ∂price/∂σ          =  F·φ(d1)·√T
+     * theta  =  -∂price/∂T         =  -F·φ(d1)·σ/(2√T)
+     * vanna  =  ∂²price/∂F∂σ       =  -φ(d1)·d2/σ
+     * volga  =  ∂²price/∂σ²        =  vega·d1·d2/σ
+     * <p>
+     * with d1,2 = ln(F/K)/(σ√T) ± σ√T/2, all undiscounted like black() itself.
+     * <p>
+     * The price goes through the same four regions as normalised_black_call() and is bit-identical to black(). Writing
+     * h = -|ln(F/K)|/(σ√T) and t = σ√T/2 as there, every sensitivity follows from exp(-(h²+t²)/2), exp(h·t), and
+     * Φ(h+t) and Φ(h-t). Outside region 3, the latter come from the same erfcx() terms as the price in region 4:
+     * <p>
+     * Φ(h±t)  =  ½ · exp(-(h²+t²)/2) · exp(∓h·t) · erfcx(-(h±t)/√2) .
+     * <p>
+     * In region 3, they are the norm_cdf() values the price is computed from. Nothing is allocated.
+     */
+    public static void black_and_greeks(double F, double K, double sigma, double T, double q /* q=±1 */, double[] greeks, int offset) {
+        black_and_greeks(F, K, sigma, T, q, greeks, null, offset);
+    }
+
+    /**
+     * As black_and_greeks() into an array, but into greeks.get(offset+GREEKS_PRICE), ...,
+     * greeks.get(offset+GREEKS_VOLGA) of a buffer, which may be direct, see OptionChainStore. The buffer's position and
+     * limit are neither used nor changed.
+     */
+    public static void black_and_greeks(double F, double K, double sigma, double T, double q /* q=±1 */, DoubleBuffer greeks, int offset) {
+        black_and_greeks(F, K, sigma, T, q, null, greeks, offset);
+    }
+
+    private static void put(double[] array, DoubleBuffer buffer, int index, double value) {
+        if (array != null)
+            array[index] = value;
+        else
+            buffer.put(index, value);
+    }
 
-        double f, fp, fpp;
-        fpp = PI_OVER_SIX * y / (s2 * s) * Phi * (8 * SQRT_THREE * s * ax + (3 * s2 * (s2 - 8) - 8 * x * x) * Phi / phi) * exp(2 * y + 0.25 * s2);
-        if (is_below_horizon(s)) {
-            fp = 1;
-            f = 0;
+    /**
+     * Writes to array if it is not null, else to buffer.
+     */
+    private static void black_and_greeks(double F, double K, double sigma, double T, double q /* q=±1 */, double[] array, DoubleBuffer buffer, int offset) {
+        final double intrinsic = abs(max((q < 0 ? K - F : F - K), 0.0));
+        final boolean in_the_money = q * (F - K) > 0;
+        final double x = log(F / K), sqrt_T = sqrt(T), s = sigma * sqrt_T, sqrt_FK = sqrt(F) * sqrt(K);
+        // The out-of-the-money call to which black() maps the option, see normalised_black(). Note that xc <= 0.
+        final double xc = (in_the_money ? -q : q) < 0 ? -x : x, ax = abs(xc);
+        double b, h, t, exp_minus_half_h2_plus_t2, Phi_plus, Phi_minus;
+        if (s <= ax * DENORMALIZATION_CUTOFF) {
+            b = normalised_intrinsic_call(xc);
+            h = xc == 0 ? 0 : xc / s;
+            t = 0.5 * s;
+            exp_minus_half_h2_plus_t2 = ax > 0 ? 0 : 1;
+            Phi_plus = Phi_minus = ax > 0 ? 0 : 0.5;
         } else {
-            final double Phi2 = Phi * Phi;
-            fp = TWO_PI * y * Phi2 * exp(y + 0.125 * s * s);
-            if (is_below_horizon(x))
-                f = 0;
-            else
-                f = TWO_PI_OVER_SQRT_TWENTY_SEVEN * ax * (Phi2 * Phi);
+            h = xc / s;
+            t = 0.5 * s;
+            final double b_max = exp(0.5 * xc), E = exp(-0.5 * (h * h + t * t));
+            exp_minus_half_h2_plus_t2 = E;
+            if (xc + 0.5 * s * s > s * 0.85) {
+                // Region 3.
+                Phi_plus = norm_cdf(h + t);
+                Phi_minus = norm_cdf(h - t);
+                b = abs(max(Phi_plus * b_max - Phi_minus / b_max, 0.0));
+            } else {
+                final double Y_plus = erfcx_cody(-ONE_OVER_SQRT_TWO * (h + t)), Y_minus = erfcx_cody(-ONE_OVER_SQRT_TWO * (h - t));
+                Phi_plus = E > 0 ? 0.5 * (E / b_max) * Y_plus : 0;
+                Phi_minus = 0.5 * (E * b_max) * Y_minus;
+                if (xc < s * asymptotic_expansion_accuracy_threshold && 0.5 * s * s + xc < s * (small_t_expansion_of_normalized_black_threshold + asymptotic_expansion_accuracy_threshold))
+                    // Region 1.
+                    b = asymptotic_expansion_of_normalized_black_call(h, t, E);
+                else if (0.5 * s < small_t_expansion_of_normalized_black_threshold)
+                    // Region 2.
+                    b = small_t_expansion_of_normalized_black_call(h, t, E);
+                else
+                    // Region 4.
+                    b = abs(max(0.5 * E * (Y_plus - Y_minus), 0.0));
+            }
+        }
+        final double otm_price = max(0.0, sqrt_FK * b);
+        put(array, buffer, offset + GREEKS_PRICE, in_the_money ? intrinsic + otm_price : max(intrinsic, otm_price));
+        // Delta from the tail probability of the out-of-the-money side, and put-call parity.
+        if (x > 0)
+            put(array, buffer, offset + GREEKS_DELTA, q < 0 ? -Phi_minus : 1 - Phi_minus);
+        else
+            put(array, buffer, offset + GREEKS_DELTA, q < 0 ? Phi_plus - 1 : Phi_plus);
+        // F·φ(d1) = √(F·K)·φ(h+t)·exp(h·t) = √(F·K)·exp(-(h²+t²)/2)/√(2π), the same for either sign of ln(F/K).
+        final double F_phi_d1 = sqrt_FK * (ONE_OVER_SQRT_TWO_PI * exp_minus_half_h2_plus_t2);
+        if (!(F_phi_d1 > 0)) {
+            put(array, buffer, offset + GREEKS_GAMMA, 0);
+            put(array, buffer, offset + GREEKS_VEGA, 0);
+            put(array, buffer, offset + GREEKS_THETA, 0);
+            put(array, buffer, offset + GREEKS_VANNA, 0);
+            put(array, buffer, offset + GREEKS_VOLGA, 0);
+            return;
         }
-        return new double[]{f, fp, fpp};
+        // With h = -|x|/s, ±h is x/s.
+        final double x_over_s = xc == x ? h : -h, d1 = x_over_s + t, d2 = x_over_s - t, vega = F_phi_d1 * sqrt_T;
+        put(array, buffer, offset + GREEKS_GAMMA, F_phi_d1 / (F * F * s));
+        put(array, buffer, offset + GREEKS_VEGA, vega);
+        put(array, buffer, offset + GREEKS_THETA, -0.5 * F_phi_d1 * sigma / sqrt_T);
+        put(array, buffer, offset + GREEKS_VANNA, -(F_phi_d1 / F) * d2 / sigma);
+        put(array, buffer, offset + GREEKS_VOLGA, vega * d1 * d2 / sigma);
     }
 
+    /**
+     * Batch form of black_and_greeks() over parallel arrays: the results for element i, for i = offset, ...,
+     * offset+length-1, go to greeks[GREEKS_LENGTH·i+GREEKS_PRICE], ..., greeks[GREEKS_LENGTH·i+GREEKS_VOLGA].
+     */
+    public static void black_and_greeks(double[] F, double[] K, double[] sigma, double[] T, double[] q, double[] greeks, int offset, int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i)
+            black_and_greeks(F[i], K[i], sigma[i], T[i], q[i], greeks, GREEKS_LENGTH * i);
+    }
 
     private static double inverse_f_lower_map(final double x, final double f) {
         return is_below_horizon(f) ? 0 : abs(x / (SQRT_THREE * inverse_norm_cdf(pow(f / (TWO_PI_OVER_SQRT_TWENTY_SEVEN * abs(x)), 1. / 3.))));
     }
 
-    private static double[] compute_f_upper_map_and_first_two_derivatives(final double x, final double s) {
-        double f, fp, fpp;
-        f = norm_cdf(-0.5 * s);
-        if (is_below_horizon(x)) {
-            fp = -0.5;
-            fpp = 0;
-        } else {
-            final double w = square(x / s);
-            fp = -0.5 * exp(0.5 * w);
-            fpp = SQRT_PI_OVER_TWO * exp(w + 0.125 * s * s) * w / s;
+    private static double inverse_f_upper_map(double f) {
+        return -2. * inverse_norm_cdf(f);
+    }
+
+    /**
+     * s_l, where the tangent to b(x,s) at the central point (s_c, b_c) with slope v_c crosses zero.
+     */
+    static double lower_branch_point(double s_c, double b_c, double v_c) {
+        return s_c - b_c / v_c;
+    }
+
+    /**
+     * s_h, where the tangent to b(x,s) at the central point (s_c, b_c) with slope v_c reaches b_max.
+     */
+    static double upper_branch_point(double b_max, double s_c, double b_c, double v_c) {
+        return v_c > DBL_MIN ? s_c + (b_max - b_c) / v_c : s_c;
+    }
+
+    /**
+     * @return Φ(-z) with z = |x|/(√3·s_l), which the lower map and its derivatives at b_l = b(x,s_l) share
+     */
+    static double lower_map_Phi(double x, double s_l) {
+        return norm_cdf(-SQRT_ONE_OVER_THREE * abs(x) / s_l);
+    }
+
+    /**
+     * @return the lower map f(b_l), given Phi = lower_map_Phi(x, s_l). x ≤ 0.
+     */
+    static double lower_map_value(double x, double s_l, double Phi) {
+        return is_below_horizon(s_l) || is_below_horizon(x) ? 0 : TWO_PI_OVER_SQRT_TWENTY_SEVEN * abs(x) * (Phi * Phi * Phi);
+    }
+
+    /**
+     * @return the lower map's first derivative f'(b_l), given Phi = lower_map_Phi(x, s_l). x ≤ 0.
+     */
+    static double lower_map_first_derivative(double x, double s_l, double Phi) {
+        if (is_below_horizon(s_l))
+            return 1;
+        final double z = SQRT_ONE_OVER_THREE * abs(x) / s_l, y = z * z;
+        return TWO_PI * y * (Phi * Phi) * exp(y + 0.125 * s_l * s_l);
+    }
+
+    /**
+     * @return the lower map's second derivative f''(b_l), given Phi = lower_map_Phi(x, s_l). x ≤ 0.
+     */
+    static double lower_map_second_derivative(double x, double s_l, double Phi) {
+        final double ax = abs(x), z = SQRT_ONE_OVER_THREE * ax / s_l, y = z * z, s2 = s_l * s_l, phi = norm_pdf(z);
+        return PI_OVER_SIX * y / (s2 * s_l) * Phi * (8 * SQRT_THREE * s_l * ax + (3 * s2 * (s2 - 8) - 8 * x * x) * Phi / phi) * exp(2 * y + 0.25 * s2);
+    }
+
+    /**
+     * @return the control parameter of the rational cubic interpolating the lower map between f(0)≡0 and f(b_l)
+     */
+    static double lower_map_control_parameter(double b_l, double f_lower_map_l, double d_f_lower_map_l_d_beta, double d2_f_lower_map_l_d_beta2) {
+        return convex_rational_cubic_control_parameter_to_fit_second_derivative_at_right_side(0., b_l, 0., f_lower_map_l, 1., d_f_lower_map_l_d_beta, d2_f_lower_map_l_d_beta2, true);
+    }
+
+    /**
+     * @return the transformed rational guess for beta &lt; b_l, from the lower map f(b_l), its first derivative, and the
+     * control parameter r_ll
+     */
+    static double lower_map_guess(double beta, double x, double b_l, double f_lower_map_l, double d_f_lower_map_l_d_beta, double r_ll) {
+        double f = rational_cubic_interpolation(beta, 0., b_l, 0., f_lower_map_l, 1., d_f_lower_map_l_d_beta, r_ll);
+        if (!(f > 0)) { // This can happen due to roundoff truncation for extreme values such as |x|>500.
+            // We switch to quadratic interpolation using f(0)≡0, f(b_l), and f'(0)≡1 to specify the quadratic.
+            if (SolverMetrics.enabled)
+                SolverMetrics.record_lower_map_quadratic();
+            final double t = beta / b_l;
+            f = (f_lower_map_l * t + b_l * (1 - t)) * t;
         }
-        return new double[]{f, fp, fpp};
+        return inverse_f_lower_map(x, f);
     }
 
-    private static double inverse_f_upper_map(double f) {
-        return -2. * inverse_norm_cdf(f);
+    /**
+     * @return the upper map f(b_h) with b_h = b(x,s_h)
+     */
+    static double upper_map_value(double s_h) {
+        return norm_cdf(-0.5 * s_h);
     }
 
+    /**
+     * @return the upper map's first derivative f'(b_h). x ≤ 0.
+     */
+    static double upper_map_first_derivative(double x, double s_h) {
+        return is_below_horizon(x) ? -0.5 : -0.5 * exp(0.5 * square(x / s_h));
+    }
+
+    /**
+     * @return the upper map's second derivative f''(b_h). x ≤ 0.
+     */
+    static double upper_map_second_derivative(double x, double s_h) {
+        if (is_below_horizon(x))
+            return 0;
+        final double w = square(x / s_h);
+        return SQRT_PI_OVER_TWO * exp(w + 0.125 * s_h * s_h) * w / s_h;
+    }
+
+    /**
+     * @return the control parameter of the rational cubic interpolating the upper map between f(b_h) and f(b_max)≡0, or
+     * 0 when the second derivative is too large to fit
+     */
+    static double upper_map_control_parameter(double b_h, double b_max, double f_upper_map_h, double d_f_upper_map_h_d_beta, double d2_f_upper_map_h_d_beta2) {
+        return can_fit_upper_map(d2_f_upper_map_h_d_beta2) ? convex_rational_cubic_control_parameter_to_fit_second_derivative_at_left_side(b_h, b_max, f_upper_map_h, 0., d_f_upper_map_h_d_beta, -0.5, d2_f_upper_map_h_d_beta2, true) : 0;
+    }
+
+    private static boolean can_fit_upper_map(double d2_f_upper_map_h_d_beta2) {
+        return d2_f_upper_map_h_d_beta2 > -SQRT_DBL_MAX && d2_f_upper_map_h_d_beta2 < SQRT_DBL_MAX;
+    }
+
+    /**
+     * @return the transformed rational guess for beta &gt; b_h, from the upper map f(b_h), its first two derivatives, and
+     * the control parameter r_hh
+     */
+    static double upper_map_guess(double beta, double b_h, double b_max, double f_upper_map_h, double d_f_upper_map_h_d_beta, double d2_f_upper_map_h_d_beta2, double r_hh) {
+        double f = -DBL_MAX;
+        if (can_fit_upper_map(d2_f_upper_map_h_d_beta2))
+            f = rational_cubic_interpolation(beta, b_h, b_max, f_upper_map_h, 0., d_f_upper_map_h_d_beta, -0.5, r_hh);
+        if (f <= 0) {
+            if (SolverMetrics.enabled)
+                SolverMetrics.record_upper_map_quadratic();
+            final double h = b_max - b_h, t = (beta - b_h) / h;
+            f = (f_upper_map_h * (1 - t) + 0.5 * h * t) * (1 - t); // We switch to quadratic interpolation using f(b_h), f(b_max)≡0, and f'(b_max)≡-1/2 to specify the quadratic.
+        }
+        return inverse_f_upper_map(f);
+    }
+
+
+    /**
+     * Third order Householder iterations starting from s within the bracket (s_left, s_right), see
+     * unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations().
+     * <p>
+     * The iteration stops after N steps or once a step is within max(relative_tolerance·s, absolute_tolerance). If
+     * first_step_limit is less than DBL_MAX, the initial guess is a warm start and NaN is returned to signal that it is
+     * not to be trusted if the very first step is not a number or exceeds first_step_limit in magnitude, if the
+     * iteration would have to fall back to binary nesting, or if the last step exceeds warm_start_last_step_limit·s.
+     */
+    private static double householder_iterations_on_lower_map(double beta, double x, double s, double s_left, double s_right, int N, double relative_tolerance, double absolute_tolerance, double first_step_limit) {
+        int iterations = 0, direction_reversal_count = 0;
+        double ds = -DBL_MAX, ds_previous = 0;
+        //
+        // In this branch, which comprises the lowest segment, the objective function is
+        //     g(s) = 1/ln(b(x,s)) - 1/ln(beta)
+        //          ≡ 1/ln(b(s)) - 1/ln(beta)
+        // This makes
+        //              g'               =   -b'/(b·ln(b)²)
+        //              newton = -g/g'   =   (ln(beta)-ln(b))·ln(b)/ln(beta)·b/b'
+        //              halley = g''/g'  =   b''/b'  -  b'/b·(1+2/ln(b))
+        //              hh3    = g'''/g' =   b'''/b' +  2(b'/b)²·(1+3/ln(b)·(1+1/ln(b)))  -  3(b''/b)·(1+2/ln(b))
+        //
+        // The Householder(3) iteration is
+        //     s_n+1  =  s_n  +  newton · [ 1 + halley·newton/2 ] / [ 1 + newton·( halley + hh3·newton/6 ) ]
+        //
+        for (; iterations < N && abs(ds) > max(relative_tolerance * s, absolute_tolerance); ++iterations) {
+            if (ds * ds_previous < 0)
+                ++direction_reversal_count;
+            if (iterations > 0 && (3 == direction_reversal_count || !(s > s_left && s < s_right))) {
+                // If looping inefficently, or the forecast step takes us outside the bracket, or onto its edges, switch to binary nesting.
+                // NOTE that this can only really happen for very extreme values of |x|, such as |x| = |ln(F/K)| > 500.
+                if (first_step_limit < DBL_MAX) // Without a bracket, a guess that needs binary nesting is not to be trusted.
+                    return Double.NaN;
+                if (SolverMetrics.enabled)
+                    SolverMetrics.record_bisection();
+                s = 0.5 * (s_left + s_right);
+                if (s_right - s_left <= DBL_EPSILON * s) break;
+                direction_reversal_count = 0;
+                ds = 0;
+            }
+            ds_previous = ds;
+            final double b = normalised_black_call(x, s), bp = normalised_vega(x, s);
+            if (b > beta && s < s_right) s_right = s;
+            else if (b < beta && s > s_left) s_left = s; // Tighten the bracket if applicable.
+            if (b <= 0 || bp <= 0) { // Numerical underflow. Switch to binary nesting for this iteration.
+                if (first_step_limit < DBL_MAX)
+                    return Double.NaN;
+                if (SolverMetrics.enabled)
+                    SolverMetrics.record_bisection();
+                ds = 0.5 * (s_left + s_right) - s;
+            } else {
+                final
+                double ln_b = log(b), ln_beta = log(beta), bpob = bp / b, h = x / s, b_halley = h * h / s - s / 4, newton = (ln_beta - ln_b) * ln_b / ln_beta / bpob, halley = b_halley - bpob * (1 + 2 / ln_b);
+                final
+                double b_hh3 = b_halley * b_halley - 3 * square(h / s) - 0.25, hh3 = b_hh3 + 2 * square(bpob) * (1 + 3 / ln_b * (1 + 1 / ln_b)) - 3 * b_halley * bpob * (1 + 2 / ln_b);
+                ds = newton * householder_factor(newton, halley, hh3);
+            }
+            if (iterations == 0 && first_step_limit < DBL_MAX && !(abs(ds) <= first_step_limit)) // The initial guess is too far off to be trusted.
+                return Double.NaN;
+            s += ds = max(-0.5 * s, ds);
+        }
+        if (iterations > 0 && first_step_limit < DBL_MAX && !(abs(ds) <= warm_start_last_step_limit * s)) // The last step is too large for the iteration to have converged.
+            return Double.NaN;
+        return implied_volatility_output(iterations, s);
+    }
+
+    /**
+     * Third order Householder iterations starting from s within the bracket (s_left, s_right), see
+     * unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations().
+     * <p>
+     * The iteration stops after N steps or once a step is within max(relative_tolerance·s, absolute_tolerance). If
+     * first_step_limit is less than DBL_MAX, the initial guess is a warm start and NaN is returned to signal that it is
+     * not to be trusted if the very first step is not a number or exceeds first_step_limit in magnitude, if the
+     * iteration would have to fall back to binary nesting, or if the last step exceeds warm_start_last_step_limit·s.
+     */
+    private static double householder_iterations_on_upper_map(double beta, double x, double b_max, double s, double s_left, double s_right, int N, double relative_tolerance, double absolute_tolerance, double first_step_limit) {
+        int iterations = 0, direction_reversal_count = 0;
+        double ds = -DBL_MAX, ds_previous = 0;
+        //
+        // In this branch, which comprises the upper segment, the objective function is
+        //     g(s) = ln(b_max-beta)-ln(b_max-b(x,s))
+        //          ≡ ln((b_max-beta)/(b_max-b(s)))
+        // This makes
+        //              g'               =   b'/(b_max-b)
+        //              newton = -g/g'   =   ln((b_max-b)/(b_max-beta))·(b_max-b)/b'
+        //              halley = g''/g'  =   b''/b'  +  b'/(b_max-b)
+        //              hh3    = g'''/g' =   b'''/b' +  g'·(2g'+3b''/b')
+        // and the iteration is
+        //     s_n+1  =  s_n  +  newton · [ 1 + halley·newton/2 ] / [ 1 + newton·( halley + hh3·newton/6 ) ].
+        //
+        for (; iterations < N && abs(ds) > max(relative_tolerance * s, absolute_tolerance); ++iterations) {
+            if (ds * ds_previous < 0)
+                ++direction_reversal_count;
+            if (iterations > 0 && (3 == direction_reversal_count || !(s > s_left && s < s_right))) {
+                // If looping inefficently, or the forecast step takes us outside the bracket, or onto its edges, switch to binary nesting.
+                // NOTE that this can only really happen for very extreme values of |x|, such as |x| = |ln(F/K)| > 500.
+                if (first_step_limit < DBL_MAX) // Without a bracket, a guess that needs binary nesting is not to be trusted.
+                    return Double.NaN;
+                if (SolverMetrics.enabled)
+                    SolverMetrics.record_bisection();
+                s = 0.5 * (s_left + s_right);
+                if (s_right - s_left <= DBL_EPSILON * s) break;
+                direction_reversal_count = 0;
+                ds = 0;
+            }
+            ds_previous = ds;
+            final double b = normalised_black_call(x, s), bp = normalised_vega(x, s);
+            if (b > beta && s < s_right) s_right = s;
+            else if (b < beta && s > s_left) s_left = s; // Tighten the bracket if applicable.
+            if (b >= b_max || bp <= DBL_MIN) { // Numerical underflow. Switch to binary nesting for this iteration.
+                if (first_step_limit < DBL_MAX)
+                    return Double.NaN;
+                if (SolverMetrics.enabled)
+                    SolverMetrics.record_bisection();
+                ds = 0.5 * (s_left + s_right) - s;
+            } else {
+                final double b_max_minus_b = b_max - b, g = log((b_max - beta) / b_max_minus_b), gp = bp / b_max_minus_b;
+                final double b_halley = square(x / s) / s - s / 4, b_hh3 = b_halley * b_halley - 3 * square(x / (s * s)) - 0.25;
+                final double newton = -g / gp, halley = b_halley + gp, hh3 = b_hh3 + gp * (2 * gp + 3 * b_halley);
+                ds = newton * householder_factor(newton, halley, hh3);
+            }
+            if (iterations == 0 && first_step_limit < DBL_MAX && !(abs(ds) <= first_step_limit)) // The initial guess is too far off to be trusted.
+                return Double.NaN;
+            s += ds = max(-0.5 * s, ds);
+        }
+        if (iterations > 0 && first_step_limit < DBL_MAX && !(abs(ds) <= warm_start_last_step_limit * s)) // The last step is too large for the iteration to have converged.
+            return Double.NaN;
+        return implied_volatility_output(iterations, s);
+    }
+
+    /**
+     * Third order Householder iterations starting from s within the bracket (s_left, s_right), see
+     * unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations().
+     * <p>
+     * The iteration stops after N steps or once a step is within max(relative_tolerance·s, absolute_tolerance). If
+     * first_step_limit is less than DBL_MAX, the initial guess is a warm start and NaN is returned to signal that it is
+     * not to be trusted if the very first step is not a number or exceeds first_step_limit in magnitude, if the
+     * iteration would have to fall back to binary nesting, or if the last step exceeds warm_start_last_step_limit·s.
+     */
+    private static double householder_iterations_on_middle_segments(double beta, double x, double s, double s_left, double s_right, int N, double relative_tolerance, double absolute_tolerance, double first_step_limit) {
+        int iterations = 0, direction_reversal_count = 0;
+        double ds = -DBL_MAX, ds_previous = 0;
+        // In this branch, which comprises the two middle segments, the objective function is g(s) = b(x,s)-beta, or g(s) = b(s) - beta, for short.
+        // This makes
+        //              newton = -g/g'   =  -(b-beta)/b'
+        //              halley = g''/g'  =    b''/b'    =  x²/s³-s/4
+        //              hh3    = g'''/g' =    b'''/b'   =  halley² - 3·(x/s²)² - 1/4
+        // and the iteration is
+        //     s_n+1  =  s_n  +  newton · [ 1 + halley·newton/2 ] / [ 1 + newton·( halley + hh3·newton/6 ) ].
+        //
+        for (; iterations < N && abs(ds) > max(relative_tolerance * s, absolute_tolerance); ++iterations) {
+            if (ds * ds_previous < 0)
+                ++direction_reversal_count;
+            if (iterations > 0 && (3 == direction_reversal_count || !(s > s_left && s < s_right))) {
+                // If looping inefficently, or the forecast step takes us outside the bracket, or onto its edges, switch to binary nesting.
+                // NOTE that this can only really happen for very extreme values of |x|, such as |x| = |ln(F/K)| > 500.
+                if (first_step_limit < DBL_MAX) // Without a bracket, a guess that needs binary nesting is not to be trusted.
+                    return Double.NaN;
+                if (SolverMetrics.enabled)
+                    SolverMetrics.record_bisection();
+                s = 0.5 * (s_left + s_right);
+                if (s_right - s_left <= DBL_EPSILON * s) break;
+                direction_reversal_count = 0;
+                ds = 0;
+            }
+            ds_previous = ds;
+            final double b = normalised_black_call(x, s), bp = normalised_vega(x, s);
+            if (b > beta && s < s_right) s_right = s;
+            else if (b < beta && s > s_left) s_left = s; // Tighten the bracket if applicable.
+            final
+            double newton = (beta - b) / bp, halley = square(x / s) / s - s / 4, hh3 = halley * halley - 3 * square(x / (s * s)) - 0.25;
+            ds = newton * householder_factor(newton, halley, hh3);
+            if (iterations == 0 && first_step_limit < DBL_MAX && !(abs(ds) <= first_step_limit)) // The initial guess is too far off to be trusted.
+                return Double.NaN;
+            s += ds = max(-0.5 * s, ds);
+        }
+        if (iterations > 0 && first_step_limit < DBL_MAX && !(abs(ds) <= warm_start_last_step_limit * s)) // The last step is too large for the iteration to have converged.
+            return Double.NaN;
+        return implied_volatility_output(iterations, s);
+    }
 
     /**
      * See http:en.wikipedia.org/wiki/Householder%27s_method for a detailed explanation of the third order Householder iteration.
@@ -323,6 +793,7 @@ public class LetsBeRational {
      * <p>
      * <p>
      * NOTE that this function returns 0 when beta &lt intrinsic without any safety checks.
+     * It never throws: prices at or above the maximum are signalled by VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM.
      *
      * @param beta
      * @param x
@@ -330,7 +801,24 @@ public class LetsBeRational {
      * @param N
      * @return
      */
-    private static double unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(double beta, double x, double q /* q=±1 */, int N) throws VolatilityValueException {
+    private static double unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(double beta, double x, double q /* q=±1 */, int N) {
+        return unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_tolerance(beta, x, q, N, DBL_EPSILON, 0);
+    }
+
+    /**
+     * As unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations() but stopping
+     * the Householder iteration once a step is within max(relative_tolerance·s, absolute_tolerance).
+     */
+    private static double unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_tolerance(double beta, double x, double q /* q=±1 */, int N, double relative_tolerance, double absolute_tolerance) {
+        return unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_within_bounds(beta, x, q, N, relative_tolerance, absolute_tolerance, 0, DBL_MAX);
+    }
+
+    /**
+     * As unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_tolerance() but with the solution
+     * known to lie within [s_lower, s_upper], which tightens the bracket of the Householder iteration, and with it any
+     * binary nesting. The bounds 0 and DBL_MAX leave the bracket of each branch as it is.
+     */
+    private static double unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_within_bounds(double beta, double x, double q /* q=±1 */, int N, double relative_tolerance, double absolute_tolerance, double s_lower, double s_upper) {
         // Subtract intrinsic.
         if (q * x > 0) {
             beta = abs(max(beta - normalised_intrinsic(x, q), 0.));
@@ -348,67 +836,23 @@ public class LetsBeRational {
         final double b_max = exp(0.5 * x);
         if (beta >= b_max)
             return implied_volatility_output(0, VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM);
-        int iterations = 0, direction_reversal_count = 0;
-        double f = -DBL_MAX, s = -DBL_MAX, ds = s, ds_previous = 0, s_left = DBL_MIN, s_right = DBL_MAX;
+        double s = -DBL_MAX, s_left = DBL_MIN, s_right = DBL_MAX;
         // The temptation is great to use the optimised form b_c = exp(x/2)/2-exp(-x/2)·Phi(sqrt(-2·x)) but that would require implementing all of the above types of round-off and over/underflow handling for this expression, too.
         final double s_c = sqrt(abs(2 * x)), b_c = normalised_black_call(x, s_c), v_c = normalised_vega(x, s_c);
         // Four branches.
         if (beta < b_c) {
-            final double s_l = s_c - b_c / v_c, b_l = normalised_black_call(x, s_l);
+            final double s_l = lower_branch_point(s_c, b_c, v_c), b_l = normalised_black_call(x, s_l);
             if (beta < b_l) {
-                double[] fl = compute_f_lower_map_and_first_two_derivatives(x, s_l);
-                double f_lower_map_l = fl[0], d_f_lower_map_l_d_beta = fl[1], d2_f_lower_map_l_d_beta2 = fl[2];
-
-                final double r_ll = convex_rational_cubic_control_parameter_to_fit_second_derivative_at_right_side(0., b_l, 0., f_lower_map_l, 1., d_f_lower_map_l_d_beta, d2_f_lower_map_l_d_beta2, true);
-                f = rational_cubic_interpolation(beta, 0., b_l, 0., f_lower_map_l, 1., d_f_lower_map_l_d_beta, r_ll);
-                if (!(f > 0)) { // This can happen due to roundoff truncation for extreme values such as |x|>500.
-                    // We switch to quadratic interpolation using f(0)≡0, f(b_l), and f'(0)≡1 to specify the quadratic.
-                    final double t = beta / b_l;
-                    f = (f_lower_map_l * t + b_l * (1 - t)) * t;
-                }
-                s = inverse_f_lower_map(x, f);
+                if (SolverMetrics.enabled)
+                    SolverMetrics.record_branch(SolverMetrics.BRANCH_LOWER_MAP);
+                final double Phi_l = lower_map_Phi(x, s_l), f_lower_map_l = lower_map_value(x, s_l, Phi_l), d_f_lower_map_l_d_beta = lower_map_first_derivative(x, s_l, Phi_l);
+                final double r_ll = lower_map_control_parameter(b_l, f_lower_map_l, d_f_lower_map_l_d_beta, lower_map_second_derivative(x, s_l, Phi_l));
+                s = lower_map_guess(beta, x, b_l, f_lower_map_l, d_f_lower_map_l_d_beta, r_ll);
                 s_right = s_l;
-                //
-                // In this branch, which comprises the lowest segment, the objective function is
-                //     g(s) = 1/ln(b(x,s)) - 1/ln(beta)
-                //          ≡ 1/ln(b(s)) - 1/ln(beta)
-                // This makes
-                //              g'               =   -b'/(b·ln(b)²)
-                //              newton = -g/g'   =   (ln(beta)-ln(b))·ln(b)/ln(beta)·b/b'
-                //              halley = g''/g'  =   b''/b'  -  b'/b·(1+2/ln(b))
-                //              hh3    = g'''/g' =   b'''/b' +  2(b'/b)²·(1+3/ln(b)·(1+1/ln(b)))  -  3(b''/b)·(1+2/ln(b))
-                //
-                // The Householder(3) iteration is
-                //     s_n+1  =  s_n  +  newton · [ 1 + halley·newton/2 ] / [ 1 + newton·( halley + hh3·newton/6 ) ]
-                //
-                for (; iterations < N && abs(ds) > DBL_EPSILON * s; ++iterations) {
-                    if (ds * ds_previous < 0)
-                        ++direction_reversal_count;
-                    if (iterations > 0 && (3 == direction_reversal_count || !(s > s_left && s < s_right))) {
-                        // If looping inefficently, or the forecast step takes us outside the bracket, or onto its edges, switch to binary nesting.
-                        // NOTE that this can only really happen for very extreme values of |x|, such as |x| = |ln(F/K)| > 500.
-                        s = 0.5 * (s_left + s_right);
-                        if (s_right - s_left <= DBL_EPSILON * s) break;
-                        direction_reversal_count = 0;
-                        ds = 0;
-                    }
-                    ds_previous = ds;
-                    final double b = normalised_black_call(x, s), bp = normalised_vega(x, s);
-                    if (b > beta && s < s_right) s_right = s;
-                    else if (b < beta && s > s_left) s_left = s; // Tighten the bracket if applicable.
-                    if (b <= 0 || bp <= 0) // Numerical underflow. Switch to binary nesting for this iteration.
-                        ds = 0.5 * (s_left + s_right) - s;
-                    else {
-                        final
-                        double ln_b = log(b), ln_beta = log(beta), bpob = bp / b, h = x / s, b_halley = h * h / s - s / 4, newton = (ln_beta - ln_b) * ln_b / ln_beta / bpob, halley = b_halley - bpob * (1 + 2 / ln_b);
-                        final
-                        double b_hh3 = b_halley * b_halley - 3 * square(h / s) - 0.25, hh3 = b_hh3 + 2 * square(bpob) * (1 + 3 / ln_b * (1 + 1 / ln_b)) - 3 * b_halley * bpob * (1 + 2 / ln_b);
-                        ds = newton * householder_factor(newton, halley, hh3);
-                    }
-                    s += ds = max(-0.5 * s, ds);
-                }
-                return implied_volatility_output(iterations, s);
+                return householder_iterations_on_lower_map(beta, x, s, max(s_left, s_lower), min(s_right, s_upper), N, relative_tolerance, absolute_tolerance, DBL_MAX);
             } else {
+                if (SolverMetrics.enabled)
+                    SolverMetrics.record_branch(SolverMetrics.BRANCH_LOWER_MIDDLE);
                 final
                 double v_l = normalised_vega(x, s_l), r_lm = convex_rational_cubic_control_parameter_to_fit_second_derivative_at_right_side(b_l, b_c, s_l, s_c, 1 / v_l, 1 / v_c, 0.0, false);
                 s = rational_cubic_interpolation(beta, b_l, b_c, s_l, s_c, 1 / v_l, 1 / v_c, r_lm);
@@ -416,102 +860,153 @@ public class LetsBeRational {
                 s_right = s_c;
             }
         } else {
-            final double s_h = v_c > DBL_MIN ? s_c + (b_max - b_c) / v_c : s_c, b_h = normalised_black_call(x, s_h);
+            final double s_h = upper_branch_point(b_max, s_c, b_c, v_c), b_h = normalised_black_call(x, s_h);
             if (beta <= b_h) {
+                if (SolverMetrics.enabled)
+                    SolverMetrics.record_branch(SolverMetrics.BRANCH_UPPER_MIDDLE);
                 final
                 double v_h = normalised_vega(x, s_h), r_hm = convex_rational_cubic_control_parameter_to_fit_second_derivative_at_left_side(b_c, b_h, s_c, s_h, 1 / v_c, 1 / v_h, 0.0, false);
                 s = rational_cubic_interpolation(beta, b_c, b_h, s_c, s_h, 1 / v_c, 1 / v_h, r_hm);
                 s_left = s_c;
                 s_right = s_h;
             } else {
-                double[] fu = compute_f_upper_map_and_first_two_derivatives(x, s_h);
-                double f_upper_map_h = fu[0], d_f_upper_map_h_d_beta = fu[1], d2_f_upper_map_h_d_beta2 = fu[2];
-
-                if (d2_f_upper_map_h_d_beta2 > -SQRT_DBL_MAX && d2_f_upper_map_h_d_beta2 < SQRT_DBL_MAX) {
-                    final
-                    double r_hh = convex_rational_cubic_control_parameter_to_fit_second_derivative_at_left_side(b_h, b_max, f_upper_map_h, 0., d_f_upper_map_h_d_beta, -0.5, d2_f_upper_map_h_d_beta2, true);
-                    f = rational_cubic_interpolation(beta, b_h, b_max, f_upper_map_h, 0., d_f_upper_map_h_d_beta, -0.5, r_hh);
-                }
-                if (f <= 0) {
-                    final double h = b_max - b_h, t = (beta - b_h) / h;
-                    f = (f_upper_map_h * (1 - t) + 0.5 * h * t) * (1 - t); // We switch to quadratic interpolation using f(b_h), f(b_max)≡0, and f'(b_max)≡-1/2 to specify the quadratic.
-                }
-                s = inverse_f_upper_map(f);
+                if (SolverMetrics.enabled)
+                    SolverMetrics.record_branch(SolverMetrics.BRANCH_UPPER_MAP);
+                final double f_upper_map_h = upper_map_value(s_h), d_f_upper_map_h_d_beta = upper_map_first_derivative(x, s_h), d2_f_upper_map_h_d_beta2 = upper_map_second_derivative(x, s_h);
+                final double r_hh = upper_map_control_parameter(b_h, b_max, f_upper_map_h, d_f_upper_map_h_d_beta, d2_f_upper_map_h_d_beta2);
+                s = upper_map_guess(beta, b_h, b_max, f_upper_map_h, d_f_upper_map_h_d_beta, d2_f_upper_map_h_d_beta2, r_hh);
                 s_left = s_h;
                 if (beta > 0.5 * b_max) { // Else we better drop through and let the objective function be g(s) = b(x,s)-beta.
-                    //
-                    // In this branch, which comprises the upper segment, the objective function is
-                    //     g(s) = ln(b_max-beta)-ln(b_max-b(x,s))
-                    //          ≡ ln((b_max-beta)/(b_max-b(s)))
-                    // This makes
-                    //              g'               =   b'/(b_max-b)
-                    //              newton = -g/g'   =   ln((b_max-b)/(b_max-beta))·(b_max-b)/b'
-                    //              halley = g''/g'  =   b''/b'  +  b'/(b_max-b)
-                    //              hh3    = g'''/g' =   b'''/b' +  g'·(2g'+3b''/b')
-                    // and the iteration is
-                    //     s_n+1  =  s_n  +  newton · [ 1 + halley·newton/2 ] / [ 1 + newton·( halley + hh3·newton/6 ) ].
-                    //
-                    for (; iterations < N && abs(ds) > DBL_EPSILON * s; ++iterations) {
-                        if (ds * ds_previous < 0)
-                            ++direction_reversal_count;
-                        if (iterations > 0 && (3 == direction_reversal_count || !(s > s_left && s < s_right))) {
-                            // If looping inefficently, or the forecast step takes us outside the bracket, or onto its edges, switch to binary nesting.
-                            // NOTE that this can only really happen for very extreme values of |x|, such as |x| = |ln(F/K)| > 500.
-                            s = 0.5 * (s_left + s_right);
-                            if (s_right - s_left <= DBL_EPSILON * s) break;
-                            direction_reversal_count = 0;
-                            ds = 0;
-                        }
-                        ds_previous = ds;
-                        final double b = normalised_black_call(x, s), bp = normalised_vega(x, s);
-                        if (b > beta && s < s_right) s_right = s;
-                        else if (b < beta && s > s_left) s_left = s; // Tighten the bracket if applicable.
-                        if (b >= b_max || bp <= DBL_MIN) // Numerical underflow. Switch to binary nesting for this iteration.
-                            ds = 0.5 * (s_left + s_right) - s;
-                        else {
-                            final double b_max_minus_b = b_max - b, g = log((b_max - beta) / b_max_minus_b), gp = bp / b_max_minus_b;
-                            final double b_halley = square(x / s) / s - s / 4, b_hh3 = b_halley * b_halley - 3 * square(x / (s * s)) - 0.25;
-                            final double newton = -g / gp, halley = b_halley + gp, hh3 = b_hh3 + gp * (2 * gp + 3 * b_halley);
-                            ds = newton * householder_factor(newton, halley, hh3);
-                        }
-                        s += ds = max(-0.5 * s, ds);
-                    }
-                    return implied_volatility_output(iterations, s);
+                    return householder_iterations_on_upper_map(beta, x, b_max, s, max(s_left, s_lower), min(s_right, s_upper), N, relative_tolerance, absolute_tolerance, DBL_MAX);
                 }
             }
         }
-        // In this branch, which comprises the two middle segments, the objective function is g(s) = b(x,s)-beta, or g(s) = b(s) - beta, for short.
-        // This makes
-        //              newton = -g/g'   =  -(b-beta)/b'
-        //              halley = g''/g'  =    b''/b'    =  x²/s³-s/4
-        //              hh3    = g'''/g' =    b'''/b'   =  halley² - 3·(x/s²)² - 1/4
-        // and the iteration is
-        //     s_n+1  =  s_n  +  newton · [ 1 + halley·newton/2 ] / [ 1 + newton·( halley + hh3·newton/6 ) ].
-        //
-        for (; iterations < N && abs(ds) > DBL_EPSILON * s; ++iterations) {
-            if (ds * ds_previous < 0)
-                ++direction_reversal_count;
-            if (iterations > 0 && (3 == direction_reversal_count || !(s > s_left && s < s_right))) {
-                // If looping inefficently, or the forecast step takes us outside the bracket, or onto its edges, switch to binary nesting.
-                // NOTE that this can only really happen for very extreme values of |x|, such as |x| = |ln(F/K)| > 500.
-                s = 0.5 * (s_left + s_right);
-                if (s_right - s_left <= DBL_EPSILON * s) break;
-                direction_reversal_count = 0;
-                ds = 0;
+        return householder_iterations_on_middle_segments(beta, x, s, max(s_left, s_lower), min(s_right, s_upper), N, relative_tolerance, absolute_tolerance, DBL_MAX);
+    }
+
+
+    /**
+     * As unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations() but with
+     * all the quantities of the transformed rational guess that depend only on x taken from the given context. The
+     * result is bit-identical.
+     */
+    private static double unchecked_normalised_implied_volatility_from_a_strike_context_with_limited_iterations(StrikeContext context, double beta, double q /* q=±1 */, int N) {
+        double x = context.x;
+        // Subtract intrinsic.
+        if (q * x > 0) {
+            beta = abs(max(beta - normalised_intrinsic(x, q), 0.));
+            q = -q;
+        }
+        // Map puts to calls
+        if (q < 0) {
+            x = -x;
+            q = -q;
+        }
+        if (beta <= 0) // For negative or zero prices we return 0.
+            return implied_volatility_output(0, 0);
+        if (beta < DENORMALIZATION_CUTOFF) // For positive but denormalized (a.k.a. 'subnormal') prices, we return 0 since it would be impossible to converge to full machine accuracy anyway.
+            return implied_volatility_output(0, 0);
+        final double b_max = context.b_max;
+        if (beta >= b_max)
+            return implied_volatility_output(0, VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM);
+        double s, s_left = DBL_MIN, s_right = DBL_MAX;
+        // Four branches.
+        if (beta < context.b_c) {
+            final double b_l = context.b_l;
+            if (beta < b_l) {
+                if (SolverMetrics.enabled)
+                    SolverMetrics.record_branch(SolverMetrics.BRANCH_LOWER_MAP);
+                s = lower_map_guess(beta, x, b_l, context.f_lower_map_l, context.d_f_lower_map_l_d_beta, context.r_ll);
+                s_right = context.s_l;
+                return householder_iterations_on_lower_map(beta, x, s, s_left, s_right, N, DBL_EPSILON, 0, DBL_MAX);
+            } else {
+                if (SolverMetrics.enabled)
+                    SolverMetrics.record_branch(SolverMetrics.BRANCH_LOWER_MIDDLE);
+                s = rational_cubic_interpolation(beta, b_l, context.b_c, context.s_l, context.s_c, 1 / context.v_l, 1 / context.v_c, context.r_lm);
+                s_left = context.s_l;
+                s_right = context.s_c;
+            }
+        } else {
+            final double b_h = context.b_h;
+            if (beta <= b_h) {
+                if (SolverMetrics.enabled)
+                    SolverMetrics.record_branch(SolverMetrics.BRANCH_UPPER_MIDDLE);
+                s = rational_cubic_interpolation(beta, context.b_c, b_h, context.s_c, context.s_h, 1 / context.v_c, 1 / context.v_h, context.r_hm);
+                s_left = context.s_c;
+                s_right = context.s_h;
+            } else {
+                if (SolverMetrics.enabled)
+                    SolverMetrics.record_branch(SolverMetrics.BRANCH_UPPER_MAP);
+                s = upper_map_guess(beta, b_h, b_max, context.f_upper_map_h, context.d_f_upper_map_h_d_beta, context.d2_f_upper_map_h_d_beta2, context.r_hh);
+                s_left = context.s_h;
+                if (beta > 0.5 * b_max) { // Else we better drop through and let the objective function be g(s) = b(x,s)-beta.
+                    return householder_iterations_on_upper_map(beta, x, b_max, s, s_left, s_right, N, DBL_EPSILON, 0, DBL_MAX);
+                }
             }
-            ds_previous = ds;
-            final double b = normalised_black_call(x, s), bp = normalised_vega(x, s);
-            if (b > beta && s < s_right) s_right = s;
-            else if (b < beta && s > s_left) s_left = s; // Tighten the bracket if applicable.
-            final
-            double newton = (beta - b) / bp, halley = square(x / s) / s - s / 4, hh3 = halley * halley - 3 * square(x / (s * s)) - 0.25;
-            s += ds = max(-0.5 * s, newton * householder_factor(newton, halley, hh3));
         }
-        return implied_volatility_output(iterations, s);
+        return householder_iterations_on_middle_segments(beta, x, s, s_left, s_right, N, DBL_EPSILON, 0, DBL_MAX);
     }
 
+    /**
+     * As unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations() but the
+     * Householder iteration starts directly from the given normalised volatility s_guess, e.g. the solution for the
+     * previous tick of the same quote, instead of the transformed rational guess. This saves the three to four Black
+     * function evaluations needed to set up the rational guess.
+     * <p>
+     * The objective function is chosen from the guess in the same way as the rational guess chooses it from beta: the lower
+     * map below s_c = sqrt(2|x|), the upper map above s_c when beta > b_max/2, and b(x,s)-beta otherwise. If s_guess is
+     * not a positive finite number, if the first Householder step from it moves by more than an eighth of s_guess, if
+     * the iteration leaves the branch and would need binary nesting, or if it has not converged within N steps, the guess
+     * is not trusted and the solve falls back to the full transformed rational guess. The guess still bounds the solution
+     * from the side on which b(x,s_guess) lies, and the fallback solve's bracket starts from that bound.
+     */
+    private static double unchecked_normalised_implied_volatility_from_a_warm_start_with_limited_iterations(double beta, double x, double q /* q=±1 */, double s_guess, int N) {
+        if (!(s_guess > DBL_MIN && s_guess < DBL_MAX))
+            return unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(beta, x, q, N);
+        final double beta_in = beta, x_in = x, q_in = q;
+        // Subtract intrinsic.
+        if (q * x > 0) {
+            beta = abs(max(beta - normalised_intrinsic(x, q), 0.));
+            q = -q;
+        }
+        // Map puts to calls
+        if (q < 0) {
+            x = -x;
+            q = -q;
+        }
+        if (beta <= 0) // For negative or zero prices we return 0.
+            return implied_volatility_output(0, 0);
+        if (beta < DENORMALIZATION_CUTOFF) // For positive but denormalized (a.k.a. 'subnormal') prices, we return 0 since it would be impossible to converge to full machine accuracy anyway.
+            return implied_volatility_output(0, 0);
+        final double b_max = exp(0.5 * x);
+        if (beta >= b_max)
+            return implied_volatility_output(0, VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM);
+        final double s_c = sqrt(abs(2 * x)), first_step_limit = warm_start_first_step_limit * s_guess;
+        if (SolverMetrics.enabled)
+            SolverMetrics.record_branch(SolverMetrics.BRANCH_WARM_START);
+        final double s;
+        if (s_guess < s_c)
+            s = householder_iterations_on_lower_map(beta, x, s_guess, DBL_MIN, DBL_MAX, N, DBL_EPSILON, 0, first_step_limit);
+        else if (beta > 0.5 * b_max)
+            s = householder_iterations_on_upper_map(beta, x, b_max, s_guess, DBL_MIN, DBL_MAX, N, DBL_EPSILON, 0, first_step_limit);
+        else
+            s = householder_iterations_on_middle_segments(beta, x, s_guess, DBL_MIN, DBL_MAX, N, DBL_EPSILON, 0, first_step_limit);
+        if (Double.isNaN(s)) { // The guess was too far off.
+            if (SolverMetrics.enabled)
+                SolverMetrics.record_warm_start_fallback();
+            // b(x,s) is monotone in s, so the guess is a lower bound if it prices below beta, and an upper bound if above.
+            final double b_guess = normalised_black_call(x, s_guess);
+            return unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_within_bounds(beta_in, x_in, q_in, N, DBL_EPSILON, 0, b_guess < beta ? s_guess : 0, b_guess > beta ? s_guess : DBL_MAX);
+        }
+        return s;
+    }
 
-    public static double implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(double price, double F, double K, double T, double q /* q=±1 */, int N) throws VolatilityValueException {
+    /**
+     * As implied_volatility_from_a_transformed_rational_guess_with_limited_iterations() but, instead of throwing
+     * VolatilityValueException, returns VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC or
+     * VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM for out-of-range prices.
+     */
+    public static double implied_volatility_from_a_transformed_rational_guess_with_limited_iterations_nothrow(double price, double F, double K, double T, double q /* q=±1 */, int N) {
         final double intrinsic = abs(max((q < 0 ? K - F : F - K), 0.0));
         if (price < intrinsic)
             return implied_volatility_output(0, VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC);
@@ -524,7 +1019,12 @@ public class LetsBeRational {
             price = abs(max(price - intrinsic, 0.0));
             q = -q;
         }
-        return unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(price / (sqrt(F) * sqrt(K)), x, q, N) / sqrt(T);
+        final double s = unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(price / (sqrt(F) * sqrt(K)), x, q, N);
+        return is_volatility_signal(s) ? s : s / sqrt(T);
+    }
+
+    public static double implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(double price, double F, double K, double T, double q /* q=±1 */, int N) throws VolatilityValueException {
+        return checked_implied_volatility_output(implied_volatility_from_a_transformed_rational_guess_with_limited_iterations_nothrow(price, F, K, T, q, N));
     }
 
 
@@ -532,7 +1032,123 @@ public class LetsBeRational {
         return implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(price, F, K, T, q, implied_volatility_maximum_iterations);
     }
 
-    public static double normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(double beta, double x, double q /* q=±1 */, int N) throws VolatilityValueException {
+    public static double implied_volatility_from_a_transformed_rational_guess_nothrow(double price, double F, double K, double T, double q /* q=±1 */) {
+        return implied_volatility_from_a_transformed_rational_guess_with_limited_iterations_nothrow(price, F, K, T, q, implied_volatility_maximum_iterations);
+    }
+
+    /**
+     * Batch form of implied_volatility_from_a_transformed_rational_guess_with_limited_iterations() over parallel arrays.
+     * <p>
+     * The elements offset, ..., offset+length-1 of the inputs are solved into the same positions of volatility. Instead of
+     * throwing VolatilityValueException, each out-of-range quote gets the matching VOLATILITY_VALUE_TO_SIGNAL_* value in
+     * volatility and the matching IMPLIED_VOLATILITY_STATUS_* code in status. No memory is allocated.
+     *
+     * @param price      undiscounted option prices
+     * @param F          forwards
+     * @param K          strikes
+     * @param T          times to expiry
+     * @param q          q=±1 for calls and puts, respectively
+     * @param volatility output implied volatilities
+     * @param status     output status codes, or null if not required
+     * @param offset     index of the first element
+     * @param length     number of elements
+     * @param N          maximum number of Householder iterations
+     */
+    public static void implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(double[] price, double[] F, double[] K, double[] T, double[] q, double[] volatility, int[] status, int offset, int length, int N) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            final double v = implied_volatility_from_a_transformed_rational_guess_with_limited_iterations_nothrow(price[i], F[i], K[i], T[i], q[i], N);
+            volatility[i] = v;
+            if (status != null)
+                status[i] = implied_volatility_status(v);
+        }
+    }
+
+    /**
+     * Batch form of implied_volatility_from_a_transformed_rational_guess(), see the batch form of
+     * implied_volatility_from_a_transformed_rational_guess_with_limited_iterations().
+     */
+    public static void implied_volatility_from_a_transformed_rational_guess(double[] price, double[] F, double[] K, double[] T, double[] q, double[] volatility, int[] status, int offset, int length) {
+        implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(price, F, K, T, q, volatility, status, offset, length, implied_volatility_maximum_iterations);
+    }
+
+    /**
+     * As implied_volatility_from_a_transformed_rational_guess_nothrow() but stopping the Householder iteration as soon as
+     * a step is within max(relative_tolerance·sigma, absolute_tolerance) of the implied volatility sigma, e.g. with a
+     * relative_tolerance of 1E-8 for consumers that need no more.
+     * <p>
+     * A step is the iteration's estimate of the error of the iterate it starts from, and the error of the iterate it
+     * leads to is of the order of the fourth power of the step. The result is thus usually far more accurate than the
+     * tolerance, and solves whose initial guess is already within the tolerance stop after a single Black and vega
+     * evaluation. No tolerance makes the solver take more than implied_volatility_maximum_iterations iterations, and with
+     * relative_tolerance = DBL_EPSILON and absolute_tolerance = 0 the result is bit-identical to
+     * implied_volatility_from_a_transformed_rational_guess_nothrow().
+     */
+    public static double implied_volatility_from_a_transformed_rational_guess_with_tolerance_nothrow(double price, double F, double K, double T, double q /* q=±1 */, double relative_tolerance, double absolute_tolerance) {
+        final double intrinsic = abs(max((q < 0 ? K - F : F - K), 0.0));
+        if (price < intrinsic)
+            return implied_volatility_output(0, VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC);
+        final double max_price = (q < 0 ? K : F);
+        if (price >= max_price)
+            return implied_volatility_output(0, VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM);
+        final double x = log(F / K), sqrt_T = sqrt(T);
+        // Map in-the-money to out-of-the-money
+        if (q * x > 0) {
+            price = abs(max(price - intrinsic, 0.0));
+            q = -q;
+        }
+        // In terms of the normalised volatility s = sigma·sqrt(T), the absolute tolerance scales with sqrt(T).
+        final double s = unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_tolerance(price / (sqrt(F) * sqrt(K)), x, q, implied_volatility_maximum_iterations, relative_tolerance, absolute_tolerance * sqrt_T);
+        return is_volatility_signal(s) ? s : s / sqrt_T;
+    }
+
+    public static double implied_volatility_from_a_transformed_rational_guess_with_tolerance(double price, double F, double K, double T, double q /* q=±1 */, double relative_tolerance, double absolute_tolerance) throws VolatilityValueException {
+        return checked_implied_volatility_output(implied_volatility_from_a_transformed_rational_guess_with_tolerance_nothrow(price, F, K, T, q, relative_tolerance, absolute_tolerance));
+    }
+
+    /**
+     * Batch form of implied_volatility_from_a_transformed_rational_guess_with_tolerance(), see the batch form of
+     * implied_volatility_from_a_transformed_rational_guess_with_limited_iterations().
+     */
+    public static void implied_volatility_from_a_transformed_rational_guess_with_tolerance(double[] price, double[] F, double[] K, double[] T, double[] q, double[] volatility, int[] status, int offset, int length, double relative_tolerance, double absolute_tolerance) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            final double v = implied_volatility_from_a_transformed_rational_guess_with_tolerance_nothrow(price[i], F[i], K[i], T[i], q[i], relative_tolerance, absolute_tolerance);
+            volatility[i] = v;
+            if (status != null)
+                status[i] = implied_volatility_status(v);
+        }
+    }
+
+    /**
+     * As the batch form of implied_volatility_from_a_transformed_rational_guess_with_limited_iterations() over parallel
+     * arrays, but over buffers, which may be direct or memory-mapped, see ColumnarQuoteFile. Elements are addressed by
+     * absolute index, so the buffers' positions and limits are neither used nor changed.
+     */
+    public static void implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(DoubleBuffer price, DoubleBuffer F, DoubleBuffer K, DoubleBuffer T, DoubleBuffer q, DoubleBuffer volatility, IntBuffer status, int offset, int length, int N) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            final double v = implied_volatility_from_a_transformed_rational_guess_with_limited_iterations_nothrow(price.get(i), F.get(i), K.get(i), T.get(i), q.get(i), N);
+            volatility.put(i, v);
+            if (status != null)
+                status.put(i, implied_volatility_status(v));
+        }
+    }
+
+    /**
+     * Batch form of implied_volatility_from_a_transformed_rational_guess() over buffers, see the batch form of
+     * implied_volatility_from_a_transformed_rational_guess_with_limited_iterations() over buffers.
+     */
+    public static void implied_volatility_from_a_transformed_rational_guess(DoubleBuffer price, DoubleBuffer F, DoubleBuffer K, DoubleBuffer T, DoubleBuffer q, DoubleBuffer volatility, IntBuffer status, int offset, int length) {
+        implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(price, F, K, T, q, volatility, status, offset, length, implied_volatility_maximum_iterations);
+    }
+
+    /**
+     * As normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations() but, instead of throwing
+     * VolatilityValueException, returns VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC or
+     * VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM for out-of-range prices.
+     */
+    public static double normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations_nothrow(double beta, double x, double q /* q=±1 */, int N) {
         // Map in-the-money to out-of-the-money
         if (q * x > 0) {
             beta -= normalised_intrinsic(x, q);
@@ -543,10 +1159,253 @@ public class LetsBeRational {
         return unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(beta, x, q, N);
     }
 
+    public static double normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(double beta, double x, double q /* q=±1 */, int N) throws VolatilityValueException {
+        return checked_implied_volatility_output(normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations_nothrow(beta, x, q, N));
+    }
+
 
     public static double normalised_implied_volatility_from_a_transformed_rational_guess(double beta, double x, double q /* q=±1 */) throws VolatilityValueException {
         return normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(beta, x, q, implied_volatility_maximum_iterations);
     }
 
+    public static double normalised_implied_volatility_from_a_transformed_rational_guess_nothrow(double beta, double x, double q /* q=±1 */) {
+        return normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations_nothrow(beta, x, q, implied_volatility_maximum_iterations);
+    }
+
+    /**
+     * As normalised_implied_volatility_from_a_transformed_rational_guess_nothrow() but stopping the Householder iteration
+     * as soon as a step is within max(relative_tolerance·s, absolute_tolerance) of the normalised volatility s, see
+     * implied_volatility_from_a_transformed_rational_guess_with_tolerance_nothrow().
+     */
+    public static double normalised_implied_volatility_from_a_transformed_rational_guess_with_tolerance_nothrow(double beta, double x, double q /* q=±1 */, double relative_tolerance, double absolute_tolerance) {
+        // Map in-the-money to out-of-the-money
+        if (q * x > 0) {
+            beta -= normalised_intrinsic(x, q);
+            q = -q;
+        }
+        if (beta < 0)
+            return implied_volatility_output(0, VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC);
+        return unchecked_normalised_implied_volatility_from_a_transformed_rational_guess_with_tolerance(beta, x, q, implied_volatility_maximum_iterations, relative_tolerance, absolute_tolerance);
+    }
+
+    public static double normalised_implied_volatility_from_a_transformed_rational_guess_with_tolerance(double beta, double x, double q /* q=±1 */, double relative_tolerance, double absolute_tolerance) throws VolatilityValueException {
+        return checked_implied_volatility_output(normalised_implied_volatility_from_a_transformed_rational_guess_with_tolerance_nothrow(beta, x, q, relative_tolerance, absolute_tolerance));
+    }
+
+
+    /**
+     * Warm-started form of implied_volatility_from_a_transformed_rational_guess_with_limited_iterations_nothrow(): the
+     * Householder iteration starts from sigma_guess, typically the implied volatility of the same quote at the previous
+     * tick, and falls back to the transformed rational guess when sigma_guess is not close enough to the solution.
+     */
+    public static double implied_volatility_from_a_warm_start_with_limited_iterations_nothrow(double price, double F, double K, double T, double q /* q=±1 */, double sigma_guess, int N) {
+        final double intrinsic = abs(max((q < 0 ? K - F : F - K), 0.0));
+        if (price < intrinsic)
+            return implied_volatility_output(0, VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC);
+        final double max_price = (q < 0 ? K : F);
+        if (price >= max_price)
+            return implied_volatility_output(0, VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM);
+        final double x = log(F / K), sqrt_T = sqrt(T);
+        // Map in-the-money to out-of-the-money
+        if (q * x > 0) {
+            price = abs(max(price - intrinsic, 0.0));
+            q = -q;
+        }
+        final double s = unchecked_normalised_implied_volatility_from_a_warm_start_with_limited_iterations(price / (sqrt(F) * sqrt(K)), x, q, sigma_guess * sqrt_T, N);
+        return is_volatility_signal(s) ? s : s / sqrt_T;
+    }
+
+    public static double implied_volatility_from_a_warm_start_with_limited_iterations(double price, double F, double K, double T, double q /* q=±1 */, double sigma_guess, int N) throws VolatilityValueException {
+        return checked_implied_volatility_output(implied_volatility_from_a_warm_start_with_limited_iterations_nothrow(price, F, K, T, q, sigma_guess, N));
+    }
+
+    public static double implied_volatility_from_a_warm_start(double price, double F, double K, double T, double q /* q=±1 */, double sigma_guess) throws VolatilityValueException {
+        return implied_volatility_from_a_warm_start_with_limited_iterations(price, F, K, T, q, sigma_guess, implied_volatility_maximum_iterations);
+    }
+
+    public static double implied_volatility_from_a_warm_start_nothrow(double price, double F, double K, double T, double q /* q=±1 */, double sigma_guess) {
+        return implied_volatility_from_a_warm_start_with_limited_iterations_nothrow(price, F, K, T, q, sigma_guess, implied_volatility_maximum_iterations);
+    }
+
+    /**
+     * Batch form of implied_volatility_from_a_warm_start_with_limited_iterations_nothrow(). On entry, volatility holds the
+     * guesses, e.g. the implied volatilities solved at the previous tick; on exit, it holds the new implied volatilities.
+     * Entries that are not positive finite numbers, such as the VOLATILITY_VALUE_TO_SIGNAL_* values, are solved from the
+     * transformed rational guess. No memory is allocated.
+     */
+    public static void implied_volatility_from_a_warm_start_with_limited_iterations(double[] price, double[] F, double[] K, double[] T, double[] q, double[] volatility, int[] status, int offset, int length, int N) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            final double v = implied_volatility_from_a_warm_start_with_limited_iterations_nothrow(price[i], F[i], K[i], T[i], q[i], volatility[i], N);
+            volatility[i] = v;
+            if (status != null)
+                status[i] = implied_volatility_status(v);
+        }
+    }
+
+    /**
+     * Batch form of implied_volatility_from_a_warm_start(), see the batch form of
+     * implied_volatility_from_a_warm_start_with_limited_iterations().
+     */
+    public static void implied_volatility_from_a_warm_start(double[] price, double[] F, double[] K, double[] T, double[] q, double[] volatility, int[] status, int offset, int length) {
+        implied_volatility_from_a_warm_start_with_limited_iterations(price, F, K, T, q, volatility, status, offset, length, implied_volatility_maximum_iterations);
+    }
+
+    /**
+     * As the batch form of implied_volatility_from_a_warm_start_with_limited_iterations() over parallel arrays, but over
+     * buffers, which may be direct or memory-mapped, see OptionChainStore. Elements are addressed by absolute index, so
+     * the buffers' positions and limits are neither used nor changed.
+     */
+    public static void implied_volatility_from_a_warm_start_with_limited_iterations(DoubleBuffer price, DoubleBuffer F, DoubleBuffer K, DoubleBuffer T, DoubleBuffer q, DoubleBuffer volatility, IntBuffer status, int offset, int length, int N) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            final double v = implied_volatility_from_a_warm_start_with_limited_iterations_nothrow(price.get(i), F.get(i), K.get(i), T.get(i), q.get(i), volatility.get(i), N);
+            volatility.put(i, v);
+            if (status != null)
+                status.put(i, implied_volatility_status(v));
+        }
+    }
+
+    /**
+     * Batch form of implied_volatility_from_a_warm_start() over buffers, see the batch form of
+     * implied_volatility_from_a_warm_start_with_limited_iterations() over buffers.
+     */
+    public static void implied_volatility_from_a_warm_start(DoubleBuffer price, DoubleBuffer F, DoubleBuffer K, DoubleBuffer T, DoubleBuffer q, DoubleBuffer volatility, IntBuffer status, int offset, int length) {
+        implied_volatility_from_a_warm_start_with_limited_iterations(price, F, K, T, q, volatility, status, offset, length, implied_volatility_maximum_iterations);
+    }
+
+    /**
+     * As the batch form of implied_volatility_from_a_warm_start() over parallel arrays, but for the options of a single
+     * expiry, which share the forward F and time to expiry T, such as the points of one smile.
+     */
+    public static void implied_volatility_from_a_warm_start(double[] price, double F, double[] K, double T, double[] q, double[] volatility, int[] status, int offset, int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            final double v = implied_volatility_from_a_warm_start_with_limited_iterations_nothrow(price[i], F, K[i], T, q[i], volatility[i], implied_volatility_maximum_iterations);
+            volatility[i] = v;
+            if (status != null)
+                status[i] = implied_volatility_status(v);
+        }
+    }
+
+    /**
+     * Chain form of the batch implied volatility function for the options of a single expiry, walked in the order
+     * given, which should be sorted by strike: the first option is solved from the transformed rational guess, and each
+     * further one is warm-started from the implied volatility of the last option solved successfully, see
+     * implied_volatility_from_a_warm_start(). On a dense chain, neighbouring implied volatilities are close enough for
+     * the Householder iteration to converge from there as fast as from the rational guess, which saves the three to
+     * four Black function evaluations of setting the latter up.
+     * <p>
+     * A neighbour that is too far off, e.g. across a gap in the strikes, or from which the iteration leaves its branch or
+     * does not converge, as in far wings with tiny prices, is rejected and the option solved from the rational guess
+     * instead, within a bracket bounded on one side by the neighbour's volatility. This bound tightens the rare binary
+     * nesting of extreme moneyness. The results agree with the other batch functions to within the solver's accuracy,
+     * but are not bit-identical to theirs, and their last digits may depend on the order. The contents of volatility on
+     * entry are ignored. No memory is allocated.
+     */
+    public static void implied_volatility_from_a_strike_ordered_chain(double[] price, double F, double[] K, double T, double[] q, double[] volatility, int[] status, int offset, int length) {
+        final int end = offset + length;
+        // Not a valid guess, so that the first option is solved from the transformed rational guess.
+        double neighbour = 0;
+        for (int i = offset; i < end; ++i) {
+            final double v = implied_volatility_from_a_warm_start_with_limited_iterations_nothrow(price[i], F, K[i], T, q[i], neighbour, implied_volatility_maximum_iterations);
+            volatility[i] = v;
+            final int s = implied_volatility_status(v);
+            if (status != null)
+                status[i] = s;
+            if (s == IMPLIED_VOLATILITY_STATUS_OK && v > 0)
+                neighbour = v;
+        }
+    }
+
+    /**
+     * Warm-started form of normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations_nothrow(),
+     * starting from the normalised volatility s_guess = sigma·sqrt(T).
+     */
+    public static double normalised_implied_volatility_from_a_warm_start_with_limited_iterations_nothrow(double beta, double x, double q /* q=±1 */, double s_guess, int N) {
+        // Map in-the-money to out-of-the-money
+        if (q * x > 0) {
+            beta -= normalised_intrinsic(x, q);
+            q = -q;
+        }
+        if (beta < 0)
+            return implied_volatility_output(0, VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC);
+        return unchecked_normalised_implied_volatility_from_a_warm_start_with_limited_iterations(beta, x, q, s_guess, N);
+    }
+
+    public static double normalised_implied_volatility_from_a_warm_start_with_limited_iterations(double beta, double x, double q /* q=±1 */, double s_guess, int N) throws VolatilityValueException {
+        return checked_implied_volatility_output(normalised_implied_volatility_from_a_warm_start_with_limited_iterations_nothrow(beta, x, q, s_guess, N));
+    }
+
+    public static double normalised_implied_volatility_from_a_warm_start(double beta, double x, double q /* q=±1 */, double s_guess) throws VolatilityValueException {
+        return normalised_implied_volatility_from_a_warm_start_with_limited_iterations(beta, x, q, s_guess, implied_volatility_maximum_iterations);
+    }
+
+    public static double normalised_implied_volatility_from_a_warm_start_nothrow(double beta, double x, double q /* q=±1 */, double s_guess) {
+        return normalised_implied_volatility_from_a_warm_start_with_limited_iterations_nothrow(beta, x, q, s_guess, implied_volatility_maximum_iterations);
+    }
+
+
+    /**
+     * As normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations_nothrow() for
+     * x = context.x(), but with the x-dependent set-up of the transformed rational guess taken from the context.
+     */
+    public static double normalised_implied_volatility_from_a_strike_context_with_limited_iterations_nothrow(StrikeContext context, double beta, double q /* q=±1 */, int N) {
+        final double x = context.x;
+        // Map in-the-money to out-of-the-money
+        if (q * x > 0) {
+            beta -= normalised_intrinsic(x, q);
+            q = -q;
+        }
+        if (beta < 0)
+            return implied_volatility_output(0, VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC);
+        return unchecked_normalised_implied_volatility_from_a_strike_context_with_limited_iterations(context, beta, q, N);
+    }
+
+    public static double normalised_implied_volatility_from_a_strike_context_with_limited_iterations(StrikeContext context, double beta, double q /* q=±1 */, int N) throws VolatilityValueException {
+        return checked_implied_volatility_output(normalised_implied_volatility_from_a_strike_context_with_limited_iterations_nothrow(context, beta, q, N));
+    }
+
+    public static double normalised_implied_volatility_from_a_strike_context(StrikeContext context, double beta, double q /* q=±1 */) throws VolatilityValueException {
+        return normalised_implied_volatility_from_a_strike_context_with_limited_iterations(context, beta, q, implied_volatility_maximum_iterations);
+    }
+
+    public static double normalised_implied_volatility_from_a_strike_context_nothrow(StrikeContext context, double beta, double q /* q=±1 */) {
+        return normalised_implied_volatility_from_a_strike_context_with_limited_iterations_nothrow(context, beta, q, implied_volatility_maximum_iterations);
+    }
+
+    /**
+     * As implied_volatility_from_a_transformed_rational_guess_with_limited_iterations_nothrow() but with the strike
+     * context for x = ln(F/K) looked up in, or added to, the given cache.
+     */
+    public static double implied_volatility_from_a_strike_context_with_limited_iterations_nothrow(StrikeContextCache cache, double price, double F, double K, double T, double q /* q=±1 */, int N) {
+        final double intrinsic = abs(max((q < 0 ? K - F : F - K), 0.0));
+        if (price < intrinsic)
+            return implied_volatility_output(0, VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC);
+        final double max_price = (q < 0 ? K : F);
+        if (price >= max_price)
+            return implied_volatility_output(0, VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM);
+        final StrikeContext context = cache.get(log(F / K));
+        // Map in-the-money to out-of-the-money
+        if (q * context.x > 0) {
+            price = abs(max(price - intrinsic, 0.0));
+            q = -q;
+        }
+        final double s = unchecked_normalised_implied_volatility_from_a_strike_context_with_limited_iterations(context, price / (sqrt(F) * sqrt(K)), q, N);
+        return is_volatility_signal(s) ? s : s / sqrt(T);
+    }
+
+    public static double implied_volatility_from_a_strike_context_with_limited_iterations(StrikeContextCache cache, double price, double F, double K, double T, double q /* q=±1 */, int N) throws VolatilityValueException {
+        return checked_implied_volatility_output(implied_volatility_from_a_strike_context_with_limited_iterations_nothrow(cache, price, F, K, T, q, N));
+    }
+
+    public static double implied_volatility_from_a_strike_context(StrikeContextCache cache, double price, double F, double K, double T, double q /* q=±1 */) throws VolatilityValueException {
+        return implied_volatility_from_a_strike_context_with_limited_iterations(cache, price, F, K, T, q, implied_volatility_maximum_iterations);
+    }
+
+    public static double implied_volatility_from_a_strike_context_nothrow(StrikeContextCache cache, double price, double F, double K, double T, double q /* q=±1 */) {
+        return implied_volatility_from_a_strike_context_with_limited_iterations_nothrow(cache, price, F, K, T, q, implied_volatility_maximum_iterations);
+    }
+
 
 }
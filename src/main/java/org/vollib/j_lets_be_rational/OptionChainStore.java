@@ -0,0 +1,224 @@
+package org.vollib.j_lets_be_rational;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.BitSet;
+
+import static org.vollib.j_lets_be_rational.Constants.GREEKS_LENGTH;
+import static org.vollib.j_lets_be_rational.Constants.IMPLIED_VOLATILITY_STATUS_OK;
+
+/**
+ * An off-heap store of option quotes with their cached implied volatilities and Greeks, in structure-of-arrays layout.
+ * <p>
+ * Every column is a direct buffer outside the Java heap, so a store of millions of options costs the garbage collector
+ * a handful of objects. Each row holds the forward, strike, time to expiry, q=±1 for calls and puts and the undiscounted
+ * price of one option, the implied volatility and IMPLIED_VOLATILITY_STATUS_* code solved from them, and the results of
+ * LetsBeRational.black_and_greeks() at that volatility, see greek().
+ * <p>
+ * Quotes are updated in place, which marks their row dirty, and solve_dirty() re-solves only the dirty rows, starting
+ * each from the row's previous implied volatility, see LetsBeRational.implied_volatility_from_a_warm_start(). The
+ * Greeks of a row whose price is out of range are NaN.
+ * <p>
+ * A store is not thread-safe. Since a direct buffer cannot exceed 2 GB, the capacity is limited to MAXIMUM_CAPACITY
+ * rows; larger universes are held in several stores, e.g. one per underlying, which can then be solved in parallel.
+ */
+public final class OptionChainStore {
+
+    public static final int MAXIMUM_CAPACITY = Integer.MAX_VALUE / (GREEKS_LENGTH * Double.BYTES);
+
+    private final DoubleBuffer F, K, T, q, price, volatility, greeks;
+    private final IntBuffer status;
+    private final BitSet dirty = new BitSet();
+    private int size;
+
+    public OptionChainStore(int capacity) {
+        if (capacity < 1 || capacity > MAXIMUM_CAPACITY)
+            throw new IllegalArgumentException("The capacity must be between 1 and " + MAXIMUM_CAPACITY + ", got " + capacity + ".");
+        F = allocate(capacity * Double.BYTES).asDoubleBuffer();
+        K = allocate(capacity * Double.BYTES).asDoubleBuffer();
+        T = allocate(capacity * Double.BYTES).asDoubleBuffer();
+        q = allocate(capacity * Double.BYTES).asDoubleBuffer();
+        price = allocate(capacity * Double.BYTES).asDoubleBuffer();
+        volatility = allocate(capacity * Double.BYTES).asDoubleBuffer();
+        greeks = allocate(capacity * GREEKS_LENGTH * Double.BYTES).asDoubleBuffer();
+        status = allocate(capacity * Integer.BYTES).asIntBuffer();
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    public int capacity() {
+        return price.capacity();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void check_row(int row) {
+        if (row < 0 || row >= size)
+            throw new IndexOutOfBoundsException("Row " + row + " is outside the rows 0, ..., " + (size - 1) + ".");
+    }
+
+    /**
+     * Appends an option, which is dirty until solved.
+     *
+     * @return the new row
+     */
+    public int add(double F, double K, double T, double q /* q=±1 */, double price) {
+        if (size == capacity())
+            throw new IllegalStateException("The store is full with " + size + " rows.");
+        final int row = size++;
+        this.F.put(row, F);
+        this.K.put(row, K);
+        this.T.put(row, T);
+        this.q.put(row, q);
+        this.price.put(row, price);
+        // Not a valid guess, so that the first solve starts from the transformed rational guess.
+        volatility.put(row, 0);
+        dirty.set(row);
+        return row;
+    }
+
+    /**
+     * Updates the price of an option, marking it dirty unless the price is unchanged.
+     */
+    public void set_price(int row, double price) {
+        check_row(row);
+        if (Double.doubleToLongBits(this.price.get(row)) != Double.doubleToLongBits(price)) {
+            this.price.put(row, price);
+            dirty.set(row);
+        }
+    }
+
+    /**
+     * Updates the forward of an option, marking it dirty unless the forward is unchanged.
+     */
+    public void set_forward(int row, double F) {
+        check_row(row);
+        if (Double.doubleToLongBits(this.F.get(row)) != Double.doubleToLongBits(F)) {
+            this.F.put(row, F);
+            dirty.set(row);
+        }
+    }
+
+    /**
+     * Updates the time to expiry of an option, marking it dirty unless the time to expiry is unchanged.
+     */
+    public void set_time_to_expiry(int row, double T) {
+        check_row(row);
+        if (Double.doubleToLongBits(this.T.get(row)) != Double.doubleToLongBits(T)) {
+            this.T.put(row, T);
+            dirty.set(row);
+        }
+    }
+
+    /**
+     * Re-solves the implied volatility and Greeks of every dirty row, which are then clean. Each run of consecutive
+     * dirty rows is solved by one call of the batch form of LetsBeRational.implied_volatility_from_a_warm_start() over
+     * the columns. No memory is allocated.
+     *
+     * @return the number of rows solved
+     */
+    public int solve_dirty() {
+        int solved = 0;
+        for (int first = dirty.nextSetBit(0); first >= 0; first = dirty.nextSetBit(first)) {
+            final int end = dirty.nextClearBit(first);
+            solve(first, end - first);
+            solved += end - first;
+            first = end;
+        }
+        dirty.clear();
+        return solved;
+    }
+
+    /**
+     * Re-solves every row, see solve_dirty().
+     */
+    public void solve_all() {
+        dirty.set(0, size);
+        solve_dirty();
+    }
+
+    private void solve(int first, int length) {
+        LetsBeRational.implied_volatility_from_a_warm_start(price, F, K, T, q, volatility, status, first, length);
+        final int end = first + length;
+        for (int row = first; row < end; ++row) {
+            final int offset = GREEKS_LENGTH * row;
+            if (status.get(row) == IMPLIED_VOLATILITY_STATUS_OK) {
+                LetsBeRational.black_and_greeks(F.get(row), K.get(row), volatility.get(row), T.get(row), q.get(row), greeks, offset);
+            } else {
+                for (int i = 0; i < GREEKS_LENGTH; ++i)
+                    greeks.put(offset + i, Double.NaN);
+            }
+        }
+    }
+
+    public boolean is_dirty(int row) {
+        check_row(row);
+        return dirty.get(row);
+    }
+
+    /**
+     * @return the number of rows that solve_dirty() would solve
+     */
+    public int dirty_rows() {
+        return dirty.cardinality();
+    }
+
+    public double forward(int row) {
+        check_row(row);
+        return F.get(row);
+    }
+
+    public double strike(int row) {
+        check_row(row);
+        return K.get(row);
+    }
+
+    public double time_to_expiry(int row) {
+        check_row(row);
+        return T.get(row);
+    }
+
+    public double q(int row) {
+        check_row(row);
+        return q.get(row);
+    }
+
+    public double price(int row) {
+        check_row(row);
+        return price.get(row);
+    }
+
+    /**
+     * @return the implied volatility as of the last solve of the row, or a VOLATILITY_VALUE_TO_SIGNAL_* value
+     */
+    public double volatility(int row) {
+        check_row(row);
+        return volatility.get(row);
+    }
+
+    /**
+     * @return the IMPLIED_VOLATILITY_STATUS_* code as of the last solve of the row
+     */
+    public int status(int row) {
+        check_row(row);
+        return status.get(row);
+    }
+
+    /**
+     * @param greek one of GREEKS_PRICE, GREEKS_DELTA, ..., GREEKS_VOLGA
+     * @return the result of LetsBeRational.black_and_greeks() at the implied volatility as of the last solve of the row
+     */
+    public double greek(int row, int greek) {
+        check_row(row);
+        if (greek < 0 || greek >= GREEKS_LENGTH)
+            throw new IllegalArgumentException("Unknown Greek " + greek + ".");
+        return greeks.get(GREEKS_LENGTH * row + greek);
+    }
+
+}
@@ -0,0 +1,121 @@
+package org.vollib.j_lets_be_rational;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Multi-core form of the batch implied volatility function
+ * LetsBeRational.implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(double[], ...).
+ * <p>
+ * The range offset, ..., offset+length-1 is split into chunks of at most grain_size elements that are solved
+ * concurrently and written in place. Every element goes through exactly the same scalar code as in the serial batch
+ * function, so the results are bit-identical to it whatever the number of threads or the grain size.
+ */
+public class ParallelImpliedVolatility {
+
+    /**
+     * Large enough for the cost of a task to be negligible against the cost of the solves in it.
+     */
+    public static final int DEFAULT_GRAIN_SIZE = 1024;
+
+    private ParallelImpliedVolatility() {
+    }
+
+    private static class ImpliedVolatilityAction extends RecursiveAction {
+        private final double[] price, F, K, T, q, volatility;
+        private final int[] status;
+        private final int offset, length, grain_size, N;
+
+        ImpliedVolatilityAction(double[] price, double[] F, double[] K, double[] T, double[] q, double[] volatility, int[] status, int offset, int length, int grain_size, int N) {
+            this.price = price;
+            this.F = F;
+            this.K = K;
+            this.T = T;
+            this.q = q;
+            this.volatility = volatility;
+            this.status = status;
+            this.offset = offset;
+            this.length = length;
+            this.grain_size = grain_size;
+            this.N = N;
+        }
+
+        @Override
+        protected void compute() {
+            if (length <= grain_size) {
+                LetsBeRational.implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(price, F, K, T, q, volatility, status, offset, length, N);
+                return;
+            }
+            final int half = length >>> 1;
+            invokeAll(new ImpliedVolatilityAction(price, F, K, T, q, volatility, status, offset, half, grain_size, N),
+                    new ImpliedVolatilityAction(price, F, K, T, q, volatility, status, offset + half, length - half, grain_size, N));
+        }
+    }
+
+    private static void check_grain_size(int grain_size) {
+        if (grain_size < 1)
+            throw new IllegalArgumentException("The grain size must be positive, got " + grain_size + ".");
+    }
+
+    public static void implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(ForkJoinPool pool, int grain_size, double[] price, double[] F, double[] K, double[] T, double[] q, double[] volatility, int[] status, int offset, int length, int N) {
+        check_grain_size(grain_size);
+        pool.invoke(new ImpliedVolatilityAction(price, F, K, T, q, volatility, status, offset, length, grain_size, N));
+    }
+
+    public static void implied_volatility_from_a_transformed_rational_guess(ForkJoinPool pool, int grain_size, double[] price, double[] F, double[] K, double[] T, double[] q, double[] volatility, int[] status, int offset, int length) {
+        implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(pool, grain_size, price, F, K, T, q, volatility, status, offset, length, LetsBeRational.implied_volatility_maximum_iterations);
+    }
+
+    /**
+     * As the ForkJoinPool form, but submits one task per chunk to an arbitrary executor and blocks until all of them are
+     * done. The calling thread solves the last chunk itself. The first exception thrown by any chunk is rethrown.
+     */
+    public static void implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(Executor executor, int grain_size, final double[] price, final double[] F, final double[] K, final double[] T, final double[] q, final double[] volatility, final int[] status, int offset, int length, final int N) throws InterruptedException {
+        check_grain_size(grain_size);
+        final int chunks = (int) ((length + (long) grain_size - 1) / grain_size);
+        if (chunks <= 1) {
+            LetsBeRational.implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(price, F, K, T, q, volatility, status, offset, length, N);
+            return;
+        }
+        final CountDownLatch done = new CountDownLatch(chunks - 1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final int end = offset + length;
+        int begin = offset;
+        for (int chunk = 0; chunk < chunks - 1; ++chunk, begin += grain_size) {
+            final int chunk_offset = begin;
+            final int chunk_length = grain_size;
+            try {
+                executor.execute(() -> {
+                    try {
+                        LetsBeRational.implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(price, F, K, T, q, volatility, status, chunk_offset, chunk_length, N);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            } catch (RuntimeException e) { // E.g. RejectedExecutionException: nothing will run this chunk.
+                failure.compareAndSet(null, e);
+                done.countDown();
+            }
+        }
+        try {
+            LetsBeRational.implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(price, F, K, T, q, volatility, status, begin, end - begin, N);
+        } finally {
+            done.await();
+        }
+        final Throwable t = failure.get();
+        if (t instanceof RuntimeException)
+            throw (RuntimeException) t;
+        if (t instanceof Error)
+            throw (Error) t;
+    }
+
+    public static void implied_volatility_from_a_transformed_rational_guess(Executor executor, int grain_size, double[] price, double[] F, double[] K, double[] T, double[] q, double[] volatility, int[] status, int offset, int length) throws InterruptedException {
+        implied_volatility_from_a_transformed_rational_guess_with_limited_iterations(executor, grain_size, price, F, K, T, q, volatility, status, offset, length, LetsBeRational.implied_volatility_maximum_iterations);
+    }
+
+}
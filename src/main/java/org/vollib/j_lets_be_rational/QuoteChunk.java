@@ -0,0 +1,45 @@
+package org.vollib.j_lets_be_rational;
+
+/**
+ * A fixed-capacity block of option quotes in structure-of-arrays layout, together with the implied volatilities and
+ * status codes solved for them, as passed between the stages of ImpliedVolatilityPipeline.
+ * <p>
+ * The elements 0, ..., size()-1 are in use. The arrays are allocated once and reused for every chunk of a stream, so
+ * that a pipeline's memory does not grow with the size of its input.
+ */
+public final class QuoteChunk {
+
+    /**
+     * Undiscounted option prices, forwards, strikes, times to expiry, and q=±1 for calls and puts.
+     */
+    public final double[] price, F, K, T, q;
+
+    /**
+     * The solved implied volatilities and IMPLIED_VOLATILITY_STATUS_* codes.
+     */
+    public final double[] volatility;
+    public final int[] status;
+
+    int size;
+
+    public QuoteChunk(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("The capacity must be positive, got " + capacity + ".");
+        price = new double[capacity];
+        F = new double[capacity];
+        K = new double[capacity];
+        T = new double[capacity];
+        q = new double[capacity];
+        volatility = new double[capacity];
+        status = new int[capacity];
+    }
+
+    public int capacity() {
+        return price.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+}
@@ -0,0 +1,19 @@
+package org.vollib.j_lets_be_rational;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A source of option quotes for ImpliedVolatilityPipeline.
+ */
+public interface QuoteReader extends Closeable {
+
+    /**
+     * Reads the next quotes into chunk.price, chunk.F, chunk.K, chunk.T and chunk.q, starting at index 0.
+     *
+     * @return the number of quotes read, at most chunk.capacity(), and less than chunk.capacity() only at the end of the
+     * input, where it may be 0
+     */
+    int read(QuoteChunk chunk) throws IOException;
+
+}
@@ -0,0 +1,18 @@
+package org.vollib.j_lets_be_rational;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * A sink for the implied volatilities solved by ImpliedVolatilityPipeline.
+ */
+public interface QuoteWriter extends Closeable, Flushable {
+
+    /**
+     * Writes chunk.volatility and chunk.status for the quotes 0, ..., chunk.size()-1. The chunk is reused once this
+     * returns, so implementations must not keep a reference to it.
+     */
+    void write(QuoteChunk chunk) throws IOException;
+
+}
@@ -0,0 +1,86 @@
+package org.vollib.j_lets_be_rational;
+
+/**
+ * Black prices and implied volatilities on float inputs and outputs, for screening and visualisation workloads that
+ * need about six significant digits but scan large data sets, whose memory traffic float storage halves.
+ * <p>
+ * The arithmetic remains in double precision, which costs the same as float arithmetic in scalar Java code, so that all
+ * the branch thresholds and expansions of LetsBeRational keep their validity. What float accuracy saves is solver work:
+ * over moneyness |ln(F/K)| ≤ 10, a single Householder iteration from the transformed rational guess leaves a relative
+ * error below RELATIVE_ACCURACY against the double-precision solve of the same inputs, compared with the two iterations
+ * needed for DBL_EPSILON. Further out the error of one iteration grows, to over 100·FLT_EPSILON at |ln(F/K)| ≈ 90, and
+ * the solver takes both iterations.
+ * <p>
+ * The VOLATILITY_VALUE_TO_SIGNAL_* values round to ±infinity in float, and the batch functions report them through the
+ * IMPLIED_VOLATILITY_STATUS_* codes, as in LetsBeRational.
+ */
+public final class SinglePrecision {
+
+    /**
+     * The relative accuracy of the implied volatilities, 8·FLT_EPSILON.
+     */
+    public static final double RELATIVE_ACCURACY = 8 * Constants.FLT_EPSILON;
+
+    /**
+     * The largest moneyness |ln(F/K)| at which a single Householder iteration brings the solver to RELATIVE_ACCURACY.
+     */
+    public static final double MAXIMUM_SINGLE_ITERATION_MONEYNESS = 10;
+
+    /**
+     * The number of Householder iterations beyond MAXIMUM_SINGLE_ITERATION_MONEYNESS.
+     */
+    public static final int MAXIMUM_ITERATIONS = 2;
+
+    // The bounds of F/K within MAXIMUM_SINGLE_ITERATION_MONEYNESS, which save a logarithm per solve.
+    private static final double MINIMUM_SINGLE_ITERATION_RATIO = Math.exp(-MAXIMUM_SINGLE_ITERATION_MONEYNESS);
+    private static final double MAXIMUM_SINGLE_ITERATION_RATIO = Math.exp(MAXIMUM_SINGLE_ITERATION_MONEYNESS);
+
+    private SinglePrecision() {
+    }
+
+    /**
+     * @return the number of Householder iterations that brings the solver to RELATIVE_ACCURACY
+     */
+    public static int iterations(double F, double K) {
+        final double ratio = F / K;
+        return ratio >= MINIMUM_SINGLE_ITERATION_RATIO && ratio <= MAXIMUM_SINGLE_ITERATION_RATIO ? 1 : MAXIMUM_ITERATIONS;
+    }
+
+    public static float black(float F, float K, float sigma, float T, float q /* q=±1 */) {
+        return (float) LetsBeRational.black(F, K, sigma, T, q);
+    }
+
+    /**
+     * Batch form of black(float, ...) over parallel arrays: the elements offset, ..., offset+length-1 of the inputs are
+     * priced into the same positions of price. No memory is allocated.
+     */
+    public static void black(float[] F, float[] K, float[] sigma, float[] T, float[] q, float[] price, int offset, int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i)
+            price[i] = (float) LetsBeRational.black(F[i], K[i], sigma[i], T[i], q[i]);
+    }
+
+    /**
+     * @return the implied volatility to float precision, or ∓infinity for prices below the intrinsic value or above the
+     * maximum, respectively
+     */
+    public static float implied_volatility_from_a_transformed_rational_guess_nothrow(float price, float F, float K, float T, float q /* q=±1 */) {
+        return (float) LetsBeRational.implied_volatility_from_a_transformed_rational_guess_with_limited_iterations_nothrow(price, F, K, T, q, iterations(F, K));
+    }
+
+    /**
+     * Batch form of implied_volatility_from_a_transformed_rational_guess_nothrow(float, ...) over parallel arrays, with
+     * IMPLIED_VOLATILITY_STATUS_* codes written to status unless it is null, see the batch form of
+     * LetsBeRational.implied_volatility_from_a_transformed_rational_guess(). No memory is allocated.
+     */
+    public static void implied_volatility_from_a_transformed_rational_guess(float[] price, float[] F, float[] K, float[] T, float[] q, float[] volatility, int[] status, int offset, int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            final double v = LetsBeRational.implied_volatility_from_a_transformed_rational_guess_with_limited_iterations_nothrow(price[i], F[i], K[i], T[i], q[i], iterations(F[i], K[i]));
+            volatility[i] = (float) v;
+            if (status != null)
+                status[i] = LetsBeRational.implied_volatility_status(v);
+        }
+    }
+
+}
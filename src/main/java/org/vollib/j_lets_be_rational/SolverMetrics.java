@@ -0,0 +1,169 @@
+package org.vollib.j_lets_be_rational;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional counters for the implied volatility solver: which branch of the transformed rational guess was taken, how
+ * many Householder iterations each solve needed, and how often the solver had to fall back to binary nesting, to
+ * quadratic instead of rational cubic interpolation of the lower or upper map, or from a warm start to the rational
+ * guess.
+ * <p>
+ * Recording is off by default and can be switched on and off at any time. When off, the cost is one volatile read per
+ * solve and per fallback. When on, the counters are striped LongAdder cells, so that concurrent solves on different
+ * threads do not contend. Counts read while solves are running are not an atomic snapshot across counters.
+ */
+public final class SolverMetrics {
+
+    public static final int BRANCH_LOWER_MAP = 0;
+    public static final int BRANCH_LOWER_MIDDLE = 1;
+    public static final int BRANCH_UPPER_MIDDLE = 2;
+    public static final int BRANCH_UPPER_MAP = 3;
+    public static final int BRANCH_WARM_START = 4;
+    private static final String[] BRANCH_NAMES = {"lower map", "lower middle", "upper middle", "upper map", "warm start"};
+
+    /**
+     * Solves with this many iterations or more share the last bucket of the iteration histogram.
+     */
+    public static final int ITERATION_HISTOGRAM_SIZE = 16;
+
+    static volatile boolean enabled;
+
+    private static final LongAdder[] branch_hits = new_adders(BRANCH_NAMES.length);
+    private static final LongAdder[] iteration_histogram = new_adders(ITERATION_HISTOGRAM_SIZE);
+    private static final LongAdder bisection_fallbacks = new LongAdder();
+    private static final LongAdder lower_map_quadratic_fallbacks = new LongAdder();
+    private static final LongAdder upper_map_quadratic_fallbacks = new LongAdder();
+    private static final LongAdder warm_start_fallbacks = new LongAdder();
+
+    private SolverMetrics() {
+    }
+
+    private static LongAdder[] new_adders(int n) {
+        final LongAdder[] adders = new LongAdder[n];
+        for (int i = 0; i < n; ++i)
+            adders[i] = new LongAdder();
+        return adders;
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean is_enabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets all counters to zero. Solves that run concurrently may or may not be counted.
+     */
+    public static void reset() {
+        for (LongAdder adder : branch_hits)
+            adder.reset();
+        for (LongAdder adder : iteration_histogram)
+            adder.reset();
+        bisection_fallbacks.reset();
+        lower_map_quadratic_fallbacks.reset();
+        upper_map_quadratic_fallbacks.reset();
+        warm_start_fallbacks.reset();
+    }
+
+    static void record_branch(int branch) {
+        branch_hits[branch].increment();
+    }
+
+    static void record_iterations(int iterations) {
+        iteration_histogram[Math.min(iterations, ITERATION_HISTOGRAM_SIZE - 1)].increment();
+    }
+
+    static void record_bisection() {
+        bisection_fallbacks.increment();
+    }
+
+    static void record_lower_map_quadratic() {
+        lower_map_quadratic_fallbacks.increment();
+    }
+
+    static void record_upper_map_quadratic() {
+        upper_map_quadratic_fallbacks.increment();
+    }
+
+    static void record_warm_start_fallback() {
+        warm_start_fallbacks.increment();
+    }
+
+    /**
+     * @param branch one of the BRANCH_* constants
+     * @return the number of solves whose initial guess came from the given branch. A warm-started solve whose guess is
+     * rejected is counted under BRANCH_WARM_START and again under the branch of the rational guess it falls back to.
+     */
+    public static long branch_hits(int branch) {
+        return branch_hits[branch].sum();
+    }
+
+    /**
+     * @return the number of solves that returned after the given number of Householder iterations, including those that
+     * returned before iterating, with the last bucket also counting all longer solves
+     */
+    public static long iteration_count(int iterations) {
+        return iteration_histogram[Math.min(iterations, ITERATION_HISTOGRAM_SIZE - 1)].sum();
+    }
+
+    /**
+     * @return the total number of solves
+     */
+    public static long solves() {
+        long solves = 0;
+        for (LongAdder adder : iteration_histogram)
+            solves += adder.sum();
+        return solves;
+    }
+
+    /**
+     * @return the number of iterations in which the Householder step was replaced by binary nesting
+     */
+    public static long bisection_fallbacks() {
+        return bisection_fallbacks.sum();
+    }
+
+    /**
+     * @return the number of times the rational cubic interpolation of the lower map was replaced by a quadratic
+     */
+    public static long lower_map_quadratic_fallbacks() {
+        return lower_map_quadratic_fallbacks.sum();
+    }
+
+    /**
+     * @return the number of times the rational cubic interpolation of the upper map was replaced by a quadratic
+     */
+    public static long upper_map_quadratic_fallbacks() {
+        return upper_map_quadratic_fallbacks.sum();
+    }
+
+    /**
+     * @return the number of warm-started solves whose guess was rejected in favour of the transformed rational guess
+     */
+    public static long warm_start_fallbacks() {
+        return warm_start_fallbacks.sum();
+    }
+
+    /**
+     * @return a one-line summary of all counters
+     */
+    public static String summary() {
+        final StringBuilder sb = new StringBuilder("solves=").append(solves());
+        for (int branch = 0; branch < BRANCH_NAMES.length; ++branch)
+            sb.append(", ").append(BRANCH_NAMES[branch]).append('=').append(branch_hits(branch));
+        sb.append(", iterations=[");
+        for (int i = 0; i < ITERATION_HISTOGRAM_SIZE; ++i)
+            sb.append(i == 0 ? "" : " ").append(iteration_histogram[i].sum());
+        return sb.append("], bisection=").append(bisection_fallbacks())
+                .append(", lower map quadratic=").append(lower_map_quadratic_fallbacks())
+                .append(", upper map quadratic=").append(upper_map_quadratic_fallbacks())
+                .append(", warm start fallbacks=").append(warm_start_fallbacks()).toString();
+    }
+
+}
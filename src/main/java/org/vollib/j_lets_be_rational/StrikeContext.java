@@ -0,0 +1,82 @@
+package org.vollib.j_lets_be_rational;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.exp;
+import static java.lang.Math.sqrt;
+
+import static org.vollib.j_lets_be_rational.LetsBeRational.lower_branch_point;
+import static org.vollib.j_lets_be_rational.LetsBeRational.lower_map_Phi;
+import static org.vollib.j_lets_be_rational.LetsBeRational.lower_map_control_parameter;
+import static org.vollib.j_lets_be_rational.LetsBeRational.lower_map_first_derivative;
+import static org.vollib.j_lets_be_rational.LetsBeRational.lower_map_second_derivative;
+import static org.vollib.j_lets_be_rational.LetsBeRational.lower_map_value;
+import static org.vollib.j_lets_be_rational.LetsBeRational.normalised_black_call;
+import static org.vollib.j_lets_be_rational.LetsBeRational.normalised_vega;
+import static org.vollib.j_lets_be_rational.LetsBeRational.upper_branch_point;
+import static org.vollib.j_lets_be_rational.LetsBeRational.upper_map_control_parameter;
+import static org.vollib.j_lets_be_rational.LetsBeRational.upper_map_first_derivative;
+import static org.vollib.j_lets_be_rational.LetsBeRational.upper_map_second_derivative;
+import static org.vollib.j_lets_be_rational.LetsBeRational.upper_map_value;
+import static org.vollib.j_lets_be_rational.RationalCubic.convex_rational_cubic_control_parameter_to_fit_second_derivative_at_left_side;
+import static org.vollib.j_lets_be_rational.RationalCubic.convex_rational_cubic_control_parameter_to_fit_second_derivative_at_right_side;
+
+/**
+ * The parts of the transformed rational guess that depend only on the normalised moneyness x = ln(F/K), precomputed
+ * for repeated implied volatility solves on the same strike, see
+ * LetsBeRational.normalised_implied_volatility_from_a_strike_context().
+ * <p>
+ * Calls and puts on the same strike share the context: the quantities are those of the out-of-the-money call at -|x|,
+ * to which the solver maps every option. All four branches are set up, so construction costs about twice the Black and
+ * vega evaluations of the guess in a single solve, and pays for itself from the second solve on. Instances are
+ * immutable and can be shared between threads.
+ */
+public final class StrikeContext {
+
+    final double x;
+    final double b_max, s_c, b_c, v_c;
+    // The lower map and the lower middle segment.
+    final double s_l, b_l, v_l, r_lm;
+    final double f_lower_map_l, d_f_lower_map_l_d_beta, r_ll;
+    // The upper middle segment and the upper map.
+    final double s_h, b_h, v_h, r_hm;
+    final double f_upper_map_h, d_f_upper_map_h_d_beta, d2_f_upper_map_h_d_beta2, r_hh;
+
+    /**
+     * @param x the normalised moneyness ln(F/K)
+     */
+    public StrikeContext(double x) {
+        this.x = x;
+        // The out-of-the-money call to which the solver maps any option on this strike.
+        final double xc = -abs(x);
+        b_max = exp(0.5 * xc);
+        s_c = sqrt(abs(2 * xc));
+        b_c = normalised_black_call(xc, s_c);
+        v_c = normalised_vega(xc, s_c);
+
+        s_l = lower_branch_point(s_c, b_c, v_c);
+        b_l = normalised_black_call(xc, s_l);
+        v_l = normalised_vega(xc, s_l);
+        r_lm = convex_rational_cubic_control_parameter_to_fit_second_derivative_at_right_side(b_l, b_c, s_l, s_c, 1 / v_l, 1 / v_c, 0.0, false);
+        final double Phi_l = lower_map_Phi(xc, s_l);
+        f_lower_map_l = lower_map_value(xc, s_l, Phi_l);
+        d_f_lower_map_l_d_beta = lower_map_first_derivative(xc, s_l, Phi_l);
+        r_ll = lower_map_control_parameter(b_l, f_lower_map_l, d_f_lower_map_l_d_beta, lower_map_second_derivative(xc, s_l, Phi_l));
+
+        s_h = upper_branch_point(b_max, s_c, b_c, v_c);
+        b_h = normalised_black_call(xc, s_h);
+        v_h = normalised_vega(xc, s_h);
+        r_hm = convex_rational_cubic_control_parameter_to_fit_second_derivative_at_left_side(b_c, b_h, s_c, s_h, 1 / v_c, 1 / v_h, 0.0, false);
+        f_upper_map_h = upper_map_value(s_h);
+        d_f_upper_map_h_d_beta = upper_map_first_derivative(xc, s_h);
+        d2_f_upper_map_h_d_beta2 = upper_map_second_derivative(xc, s_h);
+        r_hh = upper_map_control_parameter(b_h, b_max, f_upper_map_h, d_f_upper_map_h_d_beta, d2_f_upper_map_h_d_beta2);
+    }
+
+    /**
+     * @return the normalised moneyness x = ln(F/K) this context was built for
+     */
+    public double x() {
+        return x;
+    }
+
+}
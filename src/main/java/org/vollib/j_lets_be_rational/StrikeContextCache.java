@@ -0,0 +1,55 @@
+package org.vollib.j_lets_be_rational;
+
+import java.util.Arrays;
+
+/**
+ * A bounded cache of StrikeContext objects keyed by the normalised moneyness x = ln(F/K).
+ * <p>
+ * The cache is direct-mapped: every x hashes to a single slot and a miss evicts whatever context was there. Lookups
+ * are lock-free and allocate nothing on a hit. Since contexts are immutable, concurrent misses can at worst build the
+ * same context twice, or evict each other's, but never expose a partially built one. The capacity should be a few
+ * times the number of strikes in use to keep collisions rare.
+ */
+public final class StrikeContextCache {
+
+    private final StrikeContext[] slots;
+    private final int shift;
+
+    /**
+     * @param capacity the maximum number of contexts held, rounded up to a power of two
+     */
+    public StrikeContextCache(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30)
+            throw new IllegalArgumentException("The capacity must be between 1 and 2^30, got " + capacity + ".");
+        final int bits = 32 - Integer.numberOfLeadingZeros(capacity - 1);
+        slots = new StrikeContext[1 << bits];
+        shift = 64 - bits;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * @return the context for x, built and inserted if it is not in the cache
+     */
+    public StrikeContext get(double x) {
+        final long key = Double.doubleToLongBits(x);
+        // Fibonacci hashing: the top bits of the product are well mixed even for strikes on a regular grid.
+        final int slot = slots.length == 1 ? 0 : (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+        final StrikeContext cached = slots[slot];
+        if (cached != null && Double.doubleToLongBits(cached.x) == key)
+            return cached;
+        final StrikeContext context = new StrikeContext(x);
+        slots[slot] = context;
+        return context;
+    }
+
+    /**
+     * Evicts all contexts.
+     */
+    public void clear() {
+        Arrays.fill(slots, null);
+    }
+
+}
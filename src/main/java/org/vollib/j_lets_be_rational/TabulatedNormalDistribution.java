@@ -0,0 +1,146 @@
+package org.vollib.j_lets_be_rational;
+
+/**
+ * Table-driven approximations of the cumulative normal distribution and its inverse, for screening and pre-fitting
+ * workloads that can trade a little accuracy for speed. NormalDistribution remains the exact reference used by the
+ * solver; the functions here are only used where a caller asks for them.
+ * <p>
+ * Both are piecewise cubic Hermite interpolants of the exact functions, matching values and first derivatives at the
+ * nodes of a fixed grid, so that they are continuously differentiable. The tables are built from NormalDistribution on
+ * first use, which takes about a millisecond, and occupy about 200 kB.
+ * <ul>
+ * <li>norm_cdf(z) uses a uniform grid of spacing 1/128 on [-10,10], and its absolute error is at most
+ * NORM_CDF_MAXIMUM_ABSOLUTE_ERROR. Since the error is absolute, Φ(z) loses relative accuracy where it is small, and
+ * exact values are returned for z &lt; -10, where Φ(z) &lt; 7.7E-24.</li>
+ * <li>inverse_norm_cdf(u) evaluates the central region 0.075 &le; u &le; 0.925 exactly, since AS241 needs neither log()
+ * nor sqrt() there. In the tails, down to u = 2^-64 and from 1-u = 2^-64, it interpolates on 64 nodes per binary octave
+ * of u, or of 1-u, and its relative error is at most INVERSE_NORM_CDF_MAXIMUM_RELATIVE_ERROR. Beyond, it is exact.</li>
+ * </ul>
+ */
+public final class TabulatedNormalDistribution {
+
+    /**
+     * The maximum absolute error of norm_cdf() over all arguments.
+     */
+    public static final double NORM_CDF_MAXIMUM_ABSOLUTE_ERROR = 1E-11;
+    /**
+     * The maximum relative error of inverse_norm_cdf() over all arguments.
+     */
+    public static final double INVERSE_NORM_CDF_MAXIMUM_RELATIVE_ERROR = 1E-9;
+
+    private static final double NORM_CDF_LOWER_BOUND = -10, NORM_CDF_UPPER_BOUND = 10;
+    private static final int NORM_CDF_NODES_PER_UNIT = 128;
+
+    // AS241's central region, see NormalDistribution.inverse_norm_cdf().
+    private static final double INVERSE_NORM_CDF_CENTRAL_LOWER_BOUND = 0.075, INVERSE_NORM_CDF_CENTRAL_UPPER_BOUND = 0.925;
+    // The tails are tabulated for u in [2^-64, 2^-3), i.e. the binary exponents -64, ..., -4.
+    private static final int INVERSE_NORM_CDF_MINIMUM_EXPONENT = -64, INVERSE_NORM_CDF_MAXIMUM_EXPONENT = -4;
+    private static final int INVERSE_NORM_CDF_NODES_PER_OCTAVE = 64;
+
+    private static final long EXPONENT_MASK = 0x7ff0000000000000L, SIGNIFICAND_MASK = 0x000fffffffffffffL, ONE_BITS = 0x3ff0000000000000L;
+
+    private TabulatedNormalDistribution() {
+    }
+
+    /**
+     * The coefficients c0, ..., c3 of c0+c1·t+c2·t²+c3·t³ on every interval [z_i, z_i+1], with t in [0,1), stored at
+     * 4·i, ..., 4·i+3. Built on first use by the class loader, which makes the construction thread-safe.
+     */
+    private static final class NormCdfTable {
+        static final double[] coefficients = hermite_coefficients(norm_cdf_nodes(), 1.0 / NORM_CDF_NODES_PER_UNIT);
+
+        private static double[][] norm_cdf_nodes() {
+            final int n = (int) ((NORM_CDF_UPPER_BOUND - NORM_CDF_LOWER_BOUND) * NORM_CDF_NODES_PER_UNIT) + 1;
+            final double[] value = new double[n], derivative = new double[n];
+            for (int i = 0; i < n; ++i) {
+                final double z = NORM_CDF_LOWER_BOUND + (double) i / NORM_CDF_NODES_PER_UNIT;
+                value[i] = NormalDistribution.norm_cdf(z);
+                derivative[i] = NormalDistribution.norm_pdf(z);
+            }
+            return new double[][]{value, derivative};
+        }
+    }
+
+    /**
+     * The coefficients for the octaves [2^e, 2^(e+1)) of u, in terms of the significand m = u·2^-e in [1,2), for e from
+     * INVERSE_NORM_CDF_MAXIMUM_EXPONENT down to INVERSE_NORM_CDF_MINIMUM_EXPONENT, laid out as in NormCdfTable.
+     */
+    private static final class InverseNormCdfTable {
+        static final double[] coefficients = build();
+
+        private static double[] build() {
+            final int octaves = INVERSE_NORM_CDF_MAXIMUM_EXPONENT - INVERSE_NORM_CDF_MINIMUM_EXPONENT + 1, n = INVERSE_NORM_CDF_NODES_PER_OCTAVE + 1;
+            final double[] coefficients = new double[4 * octaves * INVERSE_NORM_CDF_NODES_PER_OCTAVE];
+            final double[] value = new double[n], derivative = new double[n];
+            for (int octave = 0; octave < octaves; ++octave) {
+                final double scale = Math.scalb(1.0, INVERSE_NORM_CDF_MAXIMUM_EXPONENT - octave);
+                for (int i = 0; i < n; ++i) {
+                    final double z = NormalDistribution.inverse_norm_cdf(scale * (1 + (double) i / INVERSE_NORM_CDF_NODES_PER_OCTAVE));
+                    value[i] = z;
+                    // dz/dm = (du/dm)/φ(z).
+                    derivative[i] = scale / NormalDistribution.norm_pdf(z);
+                }
+                System.arraycopy(hermite_coefficients(new double[][]{value, derivative}, 1.0 / INVERSE_NORM_CDF_NODES_PER_OCTAVE), 0, coefficients, 4 * octave * INVERSE_NORM_CDF_NODES_PER_OCTAVE, 4 * INVERSE_NORM_CDF_NODES_PER_OCTAVE);
+            }
+            return coefficients;
+        }
+    }
+
+    private static double[] hermite_coefficients(double[][] nodes, double h) {
+        final double[] value = nodes[0], derivative = nodes[1];
+        final int intervals = value.length - 1;
+        final double[] coefficients = new double[4 * intervals];
+        for (int i = 0; i < intervals; ++i) {
+            final double y0 = value[i], y1 = value[i + 1], d0 = h * derivative[i], d1 = h * derivative[i + 1];
+            coefficients[4 * i] = y0;
+            coefficients[4 * i + 1] = d0;
+            coefficients[4 * i + 2] = 3 * (y1 - y0) - 2 * d0 - d1;
+            coefficients[4 * i + 3] = 2 * (y0 - y1) + d0 + d1;
+        }
+        return coefficients;
+    }
+
+    private static double evaluate(double[] coefficients, int interval, double t) {
+        final int j = 4 * interval;
+        return ((coefficients[j + 3] * t + coefficients[j + 2]) * t + coefficients[j + 1]) * t + coefficients[j];
+    }
+
+    /**
+     * @return Φ(z) with an absolute error of at most NORM_CDF_MAXIMUM_ABSOLUTE_ERROR
+     */
+    public static double norm_cdf(double z) {
+        if (!(z < NORM_CDF_UPPER_BOUND))
+            return z == z ? 1 : z;
+        if (z < NORM_CDF_LOWER_BOUND)
+            return NormalDistribution.norm_cdf(z);
+        final double r = (z - NORM_CDF_LOWER_BOUND) * NORM_CDF_NODES_PER_UNIT;
+        final int i = (int) r;
+        return evaluate(NormCdfTable.coefficients, i, r - i);
+    }
+
+    /**
+     * @return the tabulated inverse of Φ at u ≤ 0.5, or the exact one where u is outside the table
+     */
+    private static double inverse_norm_cdf_lower_tail(double u) {
+        final long bits = Double.doubleToRawLongBits(u);
+        final int e = (int) ((bits & EXPONENT_MASK) >>> 52) - 1023;
+        if (e < INVERSE_NORM_CDF_MINIMUM_EXPONENT)
+            return NormalDistribution.inverse_norm_cdf(u);
+        // The significand of u, in [1,2).
+        final double m = Double.longBitsToDouble((bits & SIGNIFICAND_MASK) | ONE_BITS);
+        final double r = (m - 1) * INVERSE_NORM_CDF_NODES_PER_OCTAVE;
+        final int i = (int) r;
+        return evaluate(InverseNormCdfTable.coefficients, (INVERSE_NORM_CDF_MAXIMUM_EXPONENT - e) * INVERSE_NORM_CDF_NODES_PER_OCTAVE + i, r - i);
+    }
+
+    /**
+     * @return the z for which Φ(z) = u, with a relative error of at most INVERSE_NORM_CDF_MAXIMUM_RELATIVE_ERROR
+     */
+    public static double inverse_norm_cdf(double u) {
+        if (u >= INVERSE_NORM_CDF_CENTRAL_LOWER_BOUND && u <= INVERSE_NORM_CDF_CENTRAL_UPPER_BOUND || !(u > 0 && u < 1))
+            return NormalDistribution.inverse_norm_cdf(u);
+        // 1-u is exact for u ≥ 0.5.
+        return u < 0.5 ? inverse_norm_cdf_lower_tail(u) : -inverse_norm_cdf_lower_tail(1 - u);
+    }
+
+}
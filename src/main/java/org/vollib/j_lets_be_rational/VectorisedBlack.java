@@ -0,0 +1,39 @@
+package org.vollib.j_lets_be_rational;
+
+/**
+ * Normalised Black call prices over arrays.
+ * <p>
+ * This is the Java 8 implementation, which simply loops over LetsBeRational.normalised_black_call(). The multi-release
+ * jar carries a Java 17 variant of this class in META-INF/versions/17 that evaluates Region 3 (norm_cdf) and Region 4
+ * (erfcx) of normalised_black_call() lane-wise with jdk.incubator.vector when the JVM is started with
+ * --add-modules jdk.incubator.vector. Lanes in the asymptotic expansion or small t regions are always evaluated by the
+ * scalar code.
+ */
+public class VectorisedBlack {
+
+    private VectorisedBlack() {
+    }
+
+    /**
+     * @return whether this JVM uses the jdk.incubator.vector implementation
+     */
+    public static boolean is_vectorised() {
+        return false;
+    }
+
+    /**
+     * b[i] = LetsBeRational.normalised_black_call(x[i], s[i]) for i = offset, ..., offset+length-1.
+     *
+     * @param x      normalised moneyness ln(F/K)
+     * @param s      total volatilities σ·√T
+     * @param b      output normalised Black call prices
+     * @param offset index of the first element
+     * @param length number of elements
+     */
+    public static void normalised_black_call(double[] x, double[] s, double[] b, int offset, int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i)
+            b[i] = LetsBeRational.normalised_black_call(x[i], s[i]);
+    }
+
+}
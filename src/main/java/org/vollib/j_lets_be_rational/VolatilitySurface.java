@@ -0,0 +1,168 @@
+package org.vollib.j_lets_be_rational;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Implied volatility smiles of one underlying, one per expiry, kept current under a stream of quote updates.
+ * <p>
+ * Each expiry holds its time to expiry, forward, and primitive arrays of strikes, q=±1 for calls and puts, undiscounted
+ * prices, implied volatilities and IMPLIED_VOLATILITY_STATUS_* codes. Changing a price marks its point dirty, and
+ * changing the forward of an expiry marks the whole smile dirty. update() then re-solves only the dirty points, each
+ * starting from its previous implied volatility, see LetsBeRational.implied_volatility_from_a_warm_start(). A smile
+ * that is entirely dirty, e.g. after a forward move, is re-solved by a single batch call.
+ * <p>
+ * A surface is not thread-safe.
+ */
+public final class VolatilitySurface {
+
+    private static final class Smile {
+        final double T;
+        double F;
+        final double[] K, q, price, volatility;
+        final int[] status;
+        final BitSet dirty = new BitSet();
+
+        Smile(double T, double F, double[] K, double[] q, double[] price) {
+            this.T = T;
+            this.F = F;
+            this.K = K.clone();
+            this.q = q.clone();
+            this.price = price.clone();
+            // Not a valid guess, so that the first solve starts from the transformed rational guess.
+            volatility = new double[K.length];
+            status = new int[K.length];
+            dirty.set(0, K.length);
+        }
+    }
+
+    private final List<Smile> smiles = new ArrayList<>();
+
+    /**
+     * Adds an expiry, all of whose points are dirty until the next update().
+     *
+     * @param K     the strikes, copied
+     * @param q     q=±1 for calls and puts, respectively, copied
+     * @param price the undiscounted option prices, copied
+     * @return the index of the new expiry
+     */
+    public int add_expiry(double T, double F, double[] K, double[] q, double[] price) {
+        if (q.length != K.length || price.length != K.length)
+            throw new IllegalArgumentException("Expected " + K.length + " strikes, q values and prices, got " + K.length + ", " + q.length + " and " + price.length + ".");
+        smiles.add(new Smile(T, F, K, q, price));
+        return smiles.size() - 1;
+    }
+
+    public int expiries() {
+        return smiles.size();
+    }
+
+    public int strikes(int expiry) {
+        return smiles.get(expiry).K.length;
+    }
+
+    /**
+     * Updates the price of one point, marking it dirty unless the price is unchanged.
+     */
+    public void set_price(int expiry, int strike, double price) {
+        final Smile smile = smiles.get(expiry);
+        if (Double.doubleToLongBits(smile.price[strike]) != Double.doubleToLongBits(price)) {
+            smile.price[strike] = price;
+            smile.dirty.set(strike);
+        }
+    }
+
+    /**
+     * Updates the forward of an expiry, marking all its points dirty unless the forward is unchanged.
+     */
+    public void set_forward(int expiry, double F) {
+        final Smile smile = smiles.get(expiry);
+        if (Double.doubleToLongBits(smile.F) != Double.doubleToLongBits(F)) {
+            smile.F = F;
+            smile.dirty.set(0, smile.K.length);
+        }
+    }
+
+    /**
+     * Re-solves all dirty points, which are then clean.
+     *
+     * @return the number of points solved
+     */
+    public int update() {
+        int solved = 0;
+        for (Smile smile : smiles) {
+            final int n = smile.K.length, dirty = smile.dirty.cardinality();
+            if (dirty == 0)
+                continue;
+            if (dirty == n) {
+                LetsBeRational.implied_volatility_from_a_warm_start(smile.price, smile.F, smile.K, smile.T, smile.q, smile.volatility, smile.status, 0, n);
+            } else {
+                for (int i = smile.dirty.nextSetBit(0); i >= 0; i = smile.dirty.nextSetBit(i + 1)) {
+                    final double v = LetsBeRational.implied_volatility_from_a_warm_start_nothrow(smile.price[i], smile.F, smile.K[i], smile.T, smile.q[i], smile.volatility[i]);
+                    smile.volatility[i] = v;
+                    smile.status[i] = LetsBeRational.implied_volatility_status(v);
+                }
+            }
+            smile.dirty.clear();
+            solved += dirty;
+        }
+        return solved;
+    }
+
+    /**
+     * @return the number of points that update() would solve
+     */
+    public int dirty_points() {
+        int dirty = 0;
+        for (Smile smile : smiles)
+            dirty += smile.dirty.cardinality();
+        return dirty;
+    }
+
+    public boolean is_dirty(int expiry, int strike) {
+        final Smile smile = smiles.get(expiry);
+        if (strike < 0 || strike >= smile.K.length)
+            throw new IndexOutOfBoundsException("Strike " + strike + " is outside 0, ..., " + (smile.K.length - 1) + ".");
+        return smile.dirty.get(strike);
+    }
+
+    public double time_to_expiry(int expiry) {
+        return smiles.get(expiry).T;
+    }
+
+    public double forward(int expiry) {
+        return smiles.get(expiry).F;
+    }
+
+    public double strike(int expiry, int strike) {
+        return smiles.get(expiry).K[strike];
+    }
+
+    public double price(int expiry, int strike) {
+        return smiles.get(expiry).price[strike];
+    }
+
+    /**
+     * @return the implied volatility as of the last update(), or a VOLATILITY_VALUE_TO_SIGNAL_* value
+     */
+    public double volatility(int expiry, int strike) {
+        return smiles.get(expiry).volatility[strike];
+    }
+
+    /**
+     * @return the IMPLIED_VOLATILITY_STATUS_* code as of the last update()
+     */
+    public int status(int expiry, int strike) {
+        return smiles.get(expiry).status[strike];
+    }
+
+    /**
+     * Copies the implied volatilities of an expiry as of the last update() to destination, starting at offset.
+     */
+    public void smile(int expiry, double[] destination, int offset) {
+        final Smile smile = smiles.get(expiry);
+        System.arraycopy(smile.volatility, 0, destination, offset, smile.volatility.length);
+    }
+
+}
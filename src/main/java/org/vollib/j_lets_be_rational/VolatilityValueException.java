@@ -2,41 +2,67 @@ package org.vollib.j_lets_be_rational;
 
 /**
  * Created by Maricris on 17/02/2017.
+ * <p>
+ * These exceptions carry no stack trace and no suppressed exceptions, so that the shared INSTANCE of each subclass can
+ * be thrown for every out-of-range quote without allocating. Use the *_nothrow functions in LetsBeRational to avoid
+ * exceptions altogether.
  */
 public class VolatilityValueException extends Exception {
 
     private VolatilityValueException() {
-        super("Volatility Value is out of range.");
+        this("Volatility Value is out of range.");
     }
 
     private VolatilityValueException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public Double getValue() {
         return null;
     }
 
+    /**
+     * @return the VOLATILITY_VALUE_TO_SIGNAL_* value of the exception as a primitive, which getValue() boxes, or NaN
+     * for the base class
+     */
+    public double value() {
+        return Double.NaN;
+    }
+
     public static class BelowIntrinsicException extends VolatilityValueException {
+        public static final BelowIntrinsicException INSTANCE = new BelowIntrinsicException();
+
         public BelowIntrinsicException() {
             super("The volatility is below the intrinsic value.");
         }
 
         @Override
         public Double getValue() {
+            return value();
+        }
+
+        @Override
+        public double value() {
             return Constants.VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC;
         }
     }
 
     public static class AboveMaximumException extends VolatilityValueException {
+        public static final AboveMaximumException INSTANCE = new AboveMaximumException();
+
         public AboveMaximumException() {
             super("The volatility is above the maximum value.");
         }
 
         @Override
         public Double getValue() {
+            return value();
+        }
+
+        @Override
+        public double value() {
             return Constants.VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM;
         }
     }
 
-}
\ No newline at end of file
+}
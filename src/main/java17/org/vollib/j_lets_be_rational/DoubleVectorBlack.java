@@ -0,0 +1,149 @@
+package org.vollib.j_lets_be_rational;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static org.vollib.j_lets_be_rational.Constants.DENORMALIZATION_CUTOFF;
+import static org.vollib.j_lets_be_rational.Constants.FOURTH_ROOT_DBL_EPSILON;
+import static org.vollib.j_lets_be_rational.Constants.ONE_OVER_SQRT_TWO;
+import static org.vollib.j_lets_be_rational.ErfCody.*;
+import static org.vollib.j_lets_be_rational.LetsBeRational.asymptotic_expansion_accuracy_threshold;
+import static org.vollib.j_lets_be_rational.LetsBeRational.small_t_expansion_of_normalized_black_threshold;
+
+/**
+ * Lane-wise transcription of LetsBeRational.normalised_black_call() and ErfCody.calerf() with jdk.incubator.vector.
+ * <p>
+ * Every lane is first mapped to the out-of-the-money side x = -|x|. Lanes in Region 3 and Region 4 are then priced with
+ * vector arithmetic, evaluating all of Cody's rational approximations that occur in the vector and blending them by
+ * interval masks. Lanes in Region 1 or Region 2, with s <= 0, NaN inputs, or with h-t <= -10 in Region 3 (where
+ * norm_cdf() switches to its asymptotic expansion) are recomputed by the scalar code. Finally the intrinsic value is
+ * added back for lanes with x > 0.
+ * <p>
+ * Only loaded by VectorisedBlack when the jdk.incubator.vector module is present.
+ */
+final class DoubleVectorBlack {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private static final double eta = asymptotic_expansion_accuracy_threshold;
+    private static final double tau = small_t_expansion_of_normalized_black_threshold;
+    private static final double tau_plus_eta = tau + eta;
+    private static final double norm_cdf_asymptotic_expansion_first_threshold = -10.0;
+
+    private DoubleVectorBlack() {
+    }
+
+    private static DoubleVector d_int(DoubleVector x) {
+        return (DoubleVector) x.convert(VectorOperators.D2L, 0).convert(VectorOperators.L2D, 0);
+    }
+
+    /**
+     * exp(-y²)·r computed as in ErfCody.calerf(), i.e., as exp(-ysq²)·exp(-del) with ysq = y rounded down to 1/16.
+     */
+    private static DoubleVector times_exp_minus_square(DoubleVector y, DoubleVector r) {
+        final DoubleVector ysq = d_int(y.mul(SIXTEEN)).div(SIXTEEN), del = y.sub(ysq).mul(y.add(ysq));
+        return ysq.neg().mul(ysq).lanewise(VectorOperators.EXP).mul(del.neg().lanewise(VectorOperators.EXP)).mul(r);
+    }
+
+    /**
+     * Lane-wise ErfCody.calerf(x, 1) if scaled is false, or ErfCody.calerf(x, 2) if scaled is true.
+     */
+    private static DoubleVector calerf(DoubleVector x, boolean scaled) {
+        final DoubleVector y = x.abs();
+        final VectorMask<Double> small = y.compare(VectorOperators.LE, THRESH), medium = y.compare(VectorOperators.LE, FOUR).andNot(small), large = small.or(medium).not();
+        DoubleVector result = DoubleVector.zero(SPECIES);
+        if (small.anyTrue()) {
+            final DoubleVector ysq = y.mul(y).blend(ZERO, y.compare(VectorOperators.LE, XSMALL));
+            final DoubleVector xnum = ysq.mul(A4).add(A0).mul(ysq).add(A1).mul(ysq).add(A2).mul(ysq);
+            final DoubleVector xden = ysq.add(B0).mul(ysq).add(B1).mul(ysq).add(B2).mul(ysq);
+            DoubleVector r = DoubleVector.broadcast(SPECIES, ONE).sub(x.mul(xnum.add(A3)).div(xden.add(B3)));
+            if (scaled)
+                r = ysq.lanewise(VectorOperators.EXP).mul(r);
+            result = result.blend(r, small);
+        }
+        if (medium.anyTrue()) {
+            final DoubleVector xnum = y.mul(C8).add(C0).mul(y).add(C1).mul(y).add(C2).mul(y).add(C3).mul(y).add(C4).mul(y).add(C5).mul(y).add(C6).mul(y);
+            final DoubleVector xden = y.add(D0).mul(y).add(D1).mul(y).add(D2).mul(y).add(D3).mul(y).add(D4).mul(y).add(D5).mul(y).add(D6).mul(y);
+            DoubleVector r = xnum.add(C7).div(xden.add(D7));
+            if (!scaled)
+                r = times_exp_minus_square(y, r);
+            result = result.blend(r, medium);
+        }
+        if (large.anyTrue()) {
+            final DoubleVector ysq = DoubleVector.broadcast(SPECIES, ONE).div(y.mul(y));
+            final DoubleVector xnum = ysq.mul(P5).add(P0).mul(ysq).add(P1).mul(ysq).add(P2).mul(ysq).add(P3).mul(ysq);
+            final DoubleVector xden = ysq.add(Q0).mul(ysq).add(Q1).mul(ysq).add(Q2).mul(ysq).add(Q3).mul(ysq);
+            DoubleVector r = DoubleVector.broadcast(SPECIES, SQRPI).sub(ysq.mul(xnum.add(P4)).div(xden.add(Q4))).div(y);
+            if (scaled) {
+                r = r.blend(DoubleVector.broadcast(SPECIES, SQRPI).div(y), y.compare(VectorOperators.GE, XHUGE));
+                r = r.blend(ZERO, y.compare(VectorOperators.GE, XMAX));
+            } else {
+                r = times_exp_minus_square(y, r);
+                r = r.blend(ZERO, y.compare(VectorOperators.GE, XBIG));
+            }
+            result = result.blend(r, large);
+        }
+        // Fix up for negative arguments outside the first interval.
+        final VectorMask<Double> negative = x.compare(VectorOperators.LT, ZERO).andNot(small);
+        if (negative.anyTrue()) {
+            DoubleVector r;
+            if (scaled) {
+                final DoubleVector ysq = d_int(x.mul(SIXTEEN)).div(SIXTEEN), del = x.sub(ysq).mul(x.add(ysq));
+                final DoubleVector e = ysq.mul(ysq).lanewise(VectorOperators.EXP).mul(del.lanewise(VectorOperators.EXP));
+                r = e.add(e).sub(result).blend(XINF, x.compare(VectorOperators.LT, XNEG));
+            } else
+                r = DoubleVector.broadcast(SPECIES, TWO).sub(result);
+            result = result.blend(r, negative);
+        }
+        return result;
+    }
+
+    static void normalised_black_call(double[] x, double[] s, double[] b, int offset, int length) {
+        final int end = offset + length, upper = offset + SPECIES.loopBound(length);
+        int i = offset;
+        for (; i < upper; i += SPECIES.length()) {
+            final DoubleVector xv = DoubleVector.fromArray(SPECIES, x, i), sv = DoubleVector.fromArray(SPECIES, s, i);
+            final DoubleVector ax = xv.abs(), xn = ax.neg(), h = xn.div(sv), t = sv.mul(0.5);
+            final DoubleVector half_s_squared_plus_x = t.mul(sv).add(xn);
+            VectorMask<Double> scalar = xv.test(VectorOperators.IS_NAN).or(sv.test(VectorOperators.IS_NAN)).or(sv.compare(VectorOperators.LE, ax.mul(DENORMALIZATION_CUTOFF)))
+                    .or(xn.compare(VectorOperators.LT, sv.mul(eta)).and(half_s_squared_plus_x.compare(VectorOperators.LT, sv.mul(tau_plus_eta)))) // Region 1.
+                    .or(t.compare(VectorOperators.LT, tau)); // Region 2.
+            final VectorMask<Double> region3 = half_s_squared_plus_x.compare(VectorOperators.GT, sv.mul(0.85)).andNot(scalar);
+            final VectorMask<Double> region4 = region3.or(scalar).not();
+            DoubleVector bv = DoubleVector.zero(SPECIES);
+            if (region3.anyTrue()) {
+                final DoubleVector h_minus_t = h.sub(t);
+                scalar = scalar.or(region3.and(h_minus_t.compare(VectorOperators.LE, norm_cdf_asymptotic_expansion_first_threshold)));
+                final DoubleVector b_max = xn.mul(0.5).lanewise(VectorOperators.EXP);
+                final DoubleVector Phi_plus = calerf(h.add(t).neg().mul(ONE_OVER_SQRT_TWO), false).mul(0.5), Phi_minus = calerf(h_minus_t.neg().mul(ONE_OVER_SQRT_TWO), false).mul(0.5);
+                bv = bv.blend(Phi_plus.mul(b_max).sub(Phi_minus.div(b_max)), region3);
+            }
+            if (region4.anyTrue()) {
+                final DoubleVector e = h.mul(h).add(t.mul(t)).mul(-0.5).lanewise(VectorOperators.EXP).mul(0.5);
+                final DoubleVector difference = calerf(h.add(t).mul(-ONE_OVER_SQRT_TWO), true).sub(calerf(h.sub(t).mul(-ONE_OVER_SQRT_TWO), true));
+                bv = bv.blend(e.mul(difference), region4);
+            }
+            bv = bv.max(ZERO).abs();
+            // Map out-of-the-money back to in-the-money by adding the intrinsic value exp(x/2)-exp(-x/2).
+            final VectorMask<Double> positive = xv.compare(VectorOperators.GT, ZERO).andNot(scalar);
+            if (positive.anyTrue()) {
+                final DoubleVector x2 = ax.mul(ax);
+                final DoubleVector series = x2.mul(1.0 / 92897280.0).add(1.0 / 322560.0).mul(x2).add(1.0 / 1920.0).mul(x2).add(1.0 / 24.0).mul(x2).add(ONE).mul(ax);
+                final DoubleVector b_max = ax.mul(0.5).lanewise(VectorOperators.EXP);
+                final DoubleVector intrinsic = b_max.sub(DoubleVector.broadcast(SPECIES, ONE).div(b_max)).blend(series, x2.compare(VectorOperators.LT, 98 * FOURTH_ROOT_DBL_EPSILON)).max(ZERO).abs();
+                bv = bv.add(intrinsic.blend(ZERO, positive.not()));
+            }
+            bv.intoArray(b, i);
+            if (scalar.anyTrue()) {
+                for (int lane = 0; lane < SPECIES.length(); ++lane)
+                    if (scalar.laneIsSet(lane))
+                        b[i + lane] = LetsBeRational.normalised_black_call(x[i + lane], s[i + lane]);
+            }
+        }
+        for (; i < end; ++i)
+            b[i] = LetsBeRational.normalised_black_call(x[i], s[i]);
+    }
+
+}
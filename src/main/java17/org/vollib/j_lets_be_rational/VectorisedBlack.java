@@ -0,0 +1,45 @@
+package org.vollib.j_lets_be_rational;
+
+/**
+ * Normalised Black call prices over arrays.
+ * <p>
+ * This is the Java 17 implementation. When the jdk.incubator.vector module has been added to the boot layer (start the
+ * JVM with --add-modules jdk.incubator.vector) it evaluates Region 3 (norm_cdf) and Region 4 (erfcx) of
+ * normalised_black_call() lane-wise with DoubleVector, and all other lanes with the scalar code. Otherwise it loops over
+ * LetsBeRational.normalised_black_call() like the Java 8 implementation. The vectorised results agree with the scalar
+ * ones to a few ulps; they are not bit-identical since the lane-wise exponential may differ from Math.exp() by an ulp.
+ */
+public class VectorisedBlack {
+
+    private static final boolean vectorised = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private VectorisedBlack() {
+    }
+
+    /**
+     * @return whether this JVM uses the jdk.incubator.vector implementation
+     */
+    public static boolean is_vectorised() {
+        return vectorised;
+    }
+
+    /**
+     * b[i] = LetsBeRational.normalised_black_call(x[i], s[i]) for i = offset, ..., offset+length-1.
+     *
+     * @param x      normalised moneyness ln(F/K)
+     * @param s      total volatilities σ·√T
+     * @param b      output normalised Black call prices
+     * @param offset index of the first element
+     * @param length number of elements
+     */
+    public static void normalised_black_call(double[] x, double[] s, double[] b, int offset, int length) {
+        if (vectorised) {
+            DoubleVectorBlack.normalised_black_call(x, s, b, offset, length);
+            return;
+        }
+        final int end = offset + length;
+        for (int i = offset; i < end; ++i)
+            b[i] = LetsBeRational.normalised_black_call(x[i], s[i]);
+    }
+
+}
@@ -0,0 +1,66 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BachelierTest {
+
+    @Test
+    public void testBachelier() throws Exception {
+        double F = 0.03, K = 0.025, sigma = 0.01, T = 2;
+        double s = sigma * Math.sqrt(T), d = (F - K) / s;
+        double call = (F - K) * NormalDistribution.norm_cdf(d) + s * NormalDistribution.norm_pdf(d);
+        assertEquals(call, Bachelier.bachelier(F, K, sigma, T, 1), 1e-17);
+        // Put-call parity.
+        assertEquals(call - (F - K), Bachelier.bachelier(F, K, sigma, T, -1), 1e-17);
+        assertEquals(s / Math.sqrt(2 * Math.PI), Bachelier.bachelier(F, F, sigma, T, 1), 1e-17);
+        assertEquals(F - K, Bachelier.bachelier(F, K, 0, T, 1), 0);
+    }
+
+    @Test
+    public void testPhiTildeAcrossAsymptoticThreshold() throws Exception {
+        // φ̃ is continuous at x=-10, where its evaluation switches to the asymptotic expansion.
+        double below = Bachelier.phi_tilde(-10), above = Bachelier.phi_tilde(Math.nextUp(-10.0));
+        assertEquals(below, above, 1e-13 * Math.abs(below));
+    }
+
+    @Test
+    public void testImplied_normal_volatility_round_trip() throws Exception {
+        double F = 0.02, T = 1.5, sigma = 0.0075;
+        double worst = 0;
+        // Out-of-the-money options only, whose time value is not lost in the intrinsic value, down to prices of 1E-300.
+        for (double x = -37; x <= 37; x += 0.0625) {
+            double K = F + x * sigma * Math.sqrt(T), q = x < 0 ? -1 : 1;
+            double price = Bachelier.bachelier(F, K, sigma, T, q);
+            double implied = Bachelier.implied_normal_volatility(price, F, K, T, q);
+            worst = Math.max(worst, Math.abs(implied / sigma - 1));
+        }
+        assertTrue("worst relative error " + worst, worst < 8 * Constants.DBL_EPSILON);
+    }
+
+    @Test
+    public void testImplied_normal_volatility_signals() throws Exception {
+        double F = 0.02, K = 0.01, T = 1;
+        assertEquals(0, Bachelier.implied_normal_volatility(F - K, F, K, T, 1), 0);
+        assertEquals(0.01, Bachelier.implied_normal_volatility(Bachelier.bachelier(F, F, 0.01, T, -1), F, F, T, -1), 1e-16);
+        assertEquals(Constants.VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC, Bachelier.implied_normal_volatility_nothrow(0.5 * (F - K), F, K, T, 1), 0);
+        try {
+            Bachelier.implied_normal_volatility(0.5 * (F - K), F, K, T, 1);
+            fail("Expected BelowIntrinsicException");
+        } catch (VolatilityValueException.BelowIntrinsicException e) {
+            assertTrue(e == VolatilityValueException.BelowIntrinsicException.INSTANCE);
+        }
+
+        double[] price = {Bachelier.bachelier(F, K, 0.01, T, -1), 0.5 * (F - K)};
+        double[] volatility = new double[2];
+        int[] status = new int[2];
+        Bachelier.implied_normal_volatility(price, new double[]{F, F}, new double[]{K, K}, new double[]{T, T}, new double[]{-1, 1}, volatility, status, 0, 2);
+        assertEquals(0.01, volatility[0], 1e-15);
+        assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_OK, status[0]);
+        assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_BELOW_INTRINSIC, status[1]);
+    }
+
+}
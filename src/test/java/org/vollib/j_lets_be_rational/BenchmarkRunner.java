@@ -0,0 +1,27 @@
+package org.vollib.j_lets_be_rational;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of this library in throughput and average time modes with the GC profiler attached.
+ * <p>
+ * mvn -Pjmh test-compile exec:exec [-Djmh.include=ImpliedVolatilityBenchmark]
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : ".*Benchmark.*")
+                .mode(Mode.Throughput)
+                .mode(Mode.AverageTime)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+}
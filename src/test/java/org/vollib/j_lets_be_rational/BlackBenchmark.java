@@ -0,0 +1,75 @@
+package org.vollib.j_lets_be_rational;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Black prices across moneyness x = ln(F/K) and total volatility s = σ·√T.
+ * <p>
+ * The parameter grid reaches all four regions of normalised_black_call():
+ * region 1 (asymptotic expansion) at x=-20, s=0.1,
+ * region 2 (small t expansion) at x=-1, s=0.1 and x=-0.1, s=0.1,
+ * region 3 (norm_cdf) at x=-0.1, s=2 and
+ * region 4 (erfcx) at x=-1, s=1.
+ * Positive x additionally exercise the in-the-money to out-of-the-money mapping.
+ * <p>
+ * black_and_greeks() is compared with black() followed by separate norm_cdf() and norm_pdf() calls for the Greeks.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BlackBenchmark {
+
+    @Param({"-20", "-1", "-0.1", "0.5"})
+    public double x;
+
+    @Param({"0.1", "0.5", "1", "2", "4"})
+    public double s;
+
+    private double F, K, sigma, T, q;
+
+    private final double[] greeks = new double[Constants.GREEKS_LENGTH];
+
+    @Setup
+    public void setUp() {
+        F = 100;
+        K = F * Math.exp(-x);
+        T = 0.5;
+        sigma = s / Math.sqrt(T);
+        q = 1;
+    }
+
+    @Benchmark
+    public double black() {
+        return LetsBeRational.black(F, K, sigma, T, q);
+    }
+
+    @Benchmark
+    public double normalised_black_call() {
+        return LetsBeRational.normalised_black_call(x, s);
+    }
+
+    @Benchmark
+    public double[] black_and_greeks() {
+        LetsBeRational.black_and_greeks(F, K, sigma, T, q, greeks, 0);
+        return greeks;
+    }
+
+    @Benchmark
+    public double[] black_and_separate_greeks() {
+        final double sqrt_T = Math.sqrt(T), d1 = Math.log(F / K) / s + 0.5 * s, d2 = d1 - s, phi = NormalDistribution.norm_pdf(d1), vega = F * phi * sqrt_T;
+        greeks[Constants.GREEKS_PRICE] = LetsBeRational.black(F, K, sigma, T, q);
+        greeks[Constants.GREEKS_DELTA] = NormalDistribution.norm_cdf(d1);
+        greeks[Constants.GREEKS_GAMMA] = phi / (F * s);
+        greeks[Constants.GREEKS_VEGA] = vega;
+        greeks[Constants.GREEKS_THETA] = -0.5 * F * phi * sigma / sqrt_T;
+        greeks[Constants.GREEKS_VANNA] = -phi * d2 / sigma;
+        greeks[Constants.GREEKS_VOLGA] = vega * d1 * d2 / sigma;
+        return greeks;
+    }
+
+}
@@ -0,0 +1,63 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class BlackScholesMertonTest {
+
+    @Test
+    public void testBlack_scholes_merton() throws Exception {
+        double S = 100, K = 105, sigma = .2, T = .5, r = .01, dividend_yield = .03, q = 1;  // CALL = 1 PUT = -1
+
+        double s = sigma * Math.sqrt(T);
+        double d1 = (Math.log(S / K) + (r - dividend_yield + 0.5 * sigma * sigma) * T) / s, d2 = d1 - s;
+        double expected = S * Math.exp(-dividend_yield * T) * NormalDistribution.norm_cdf(d1) - K * Math.exp(-r * T) * NormalDistribution.norm_cdf(d2);
+        assertEquals(expected, BlackScholesMerton.black_scholes_merton(S, K, sigma, T, r, dividend_yield, q), 1e-12);
+        // Put-call parity.
+        double put = BlackScholesMerton.black_scholes_merton(S, K, sigma, T, r, dividend_yield, -1);
+        assertEquals(S * Math.exp(-dividend_yield * T) - K * Math.exp(-r * T), expected - put, 1e-12);
+    }
+
+    @Test
+    public void testImplied_volatility_from_a_transformed_rational_guess() throws Exception {
+        double S = 100, K = 95, sigma = .35, T = 2, r = .05, dividend_yield = .01, q = -1;
+
+        double price = BlackScholesMerton.black_scholes_merton(S, K, sigma, T, r, dividend_yield, q);
+        assertEquals(sigma, BlackScholesMerton.implied_volatility_from_a_transformed_rational_guess(price, S, K, T, r, dividend_yield, q), 1e-14);
+        try {
+            BlackScholesMerton.implied_volatility_from_a_transformed_rational_guess(K, S, K, T, r, dividend_yield, q);
+            fail("Expected AboveMaximumException");
+        } catch (VolatilityValueException.AboveMaximumException e) {
+            // The discounted maximum of a put is K·exp(-r·T) < K.
+        }
+    }
+
+    @Test
+    public void testBatchBitIdenticalToScalar() throws Exception {
+        double S = 100;
+        double[] T = {.1, .5, 2};
+        double[] r = {.01, .02, .03};
+        double[] dividend_yield = {0, .01, .02};
+        int[] expiry_offset = {0, 3, 3, 7};  // The second expiry has no options.
+        double[] K = {90, 100, 110, 50, 100, 150, 200};
+        double[] sigma = {.2, .25, .3, .4, .3, .35, .45};
+        double[] q = {-1, 1, 1, -1, -1, 1, 1};
+        double[] price = new double[K.length];
+        BlackScholesMerton.black_scholes_merton(S, T, r, dividend_yield, expiry_offset, K, sigma, q, price);
+
+        double[] volatility = new double[K.length];
+        int[] status = new int[K.length];
+        BlackScholesMerton.implied_volatility_from_a_transformed_rational_guess(S, T, r, dividend_yield, expiry_offset, price, K, q, volatility, status);
+        for (int j = 0; j < T.length; j++) {
+            for (int i = expiry_offset[j]; i < expiry_offset[j + 1]; i++) {
+                assertEquals(Double.doubleToLongBits(BlackScholesMerton.black_scholes_merton(S, K[i], sigma[i], T[j], r[j], dividend_yield[j], q[i])), Double.doubleToLongBits(price[i]));
+                assertEquals(Double.doubleToLongBits(BlackScholesMerton.implied_volatility_from_a_transformed_rational_guess_nothrow(price[i], S, K[i], T[j], r[j], dividend_yield[j], q[i])), Double.doubleToLongBits(volatility[i]));
+                assertEquals(sigma[i], volatility[i], 1e-13);
+                assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_OK, status[i]);
+            }
+        }
+    }
+
+}
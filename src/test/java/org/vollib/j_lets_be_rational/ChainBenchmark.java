@@ -0,0 +1,107 @@
+package org.vollib.j_lets_be_rational;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implied volatilities of a whole chain of strikes at a fixed price, forward and expiry, as previously timed by
+ * SpeedBenchmarkingTest: one scalar call per strike against one batch call for the chain, and against the strike-ordered
+ * chain solver, which warm-starts each strike from its neighbour. The Black-Scholes-Merton batch solves the same chain
+ * from spot, with SpeedBenchmarkingTest's rate r=0.01 and the discounted prices.
+ * <p>
+ * Pricing the chain at a smile is timed the same way, by black() per strike against its strike grid form.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChainBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int n;
+
+    double[] price, F, K, T, q, volatility;
+    int[] status;
+    double[] sigma, black_price;
+
+    static final double r = 0.01;
+    double S;
+    double[] discounted_price, expiry_T, expiry_r, expiry_dividend_yield;
+    int[] expiry_offset;
+
+    @Setup
+    public void setUp() {
+        price = new double[n];
+        F = new double[n];
+        K = new double[n];
+        T = new double[n];
+        q = new double[n];
+        volatility = new double[n];
+        status = new int[n];
+        Arrays.fill(price, 0.001);
+        Arrays.fill(F, 100);
+        Arrays.fill(T, 0.5);
+        Arrays.fill(q, 1);
+        final double increment = n > 1 ? 5.0 / (n - 1) : 0;
+        for (int i = 0; i < n; i++) {
+            K[i] = 145 + i * increment;
+        }
+        sigma = new double[n];
+        black_price = new double[n];
+        for (int i = 0; i < n; i++) {
+            sigma[i] = 0.2 + 0.1 * Math.abs(Math.log(F[i] / K[i]));
+        }
+        S = 100 * Math.exp(-r * 0.5);
+        discounted_price = new double[n];
+        Arrays.fill(discounted_price, 0.001 * Math.exp(-r * 0.5));
+        expiry_T = new double[]{0.5};
+        expiry_r = new double[]{r};
+        expiry_dividend_yield = new double[]{0};
+        expiry_offset = new int[]{0, n};
+    }
+
+    @Benchmark
+    public double[] scalar() {
+        for (int i = 0; i < n; i++) {
+            volatility[i] = LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow(price[i], F[i], K[i], T[i], q[i]);
+        }
+        return volatility;
+    }
+
+    @Benchmark
+    public double[] batch() {
+        LetsBeRational.implied_volatility_from_a_transformed_rational_guess(price, F, K, T, q, volatility, status, 0, n);
+        return volatility;
+    }
+
+    @Benchmark
+    public double[] strike_ordered_chain() {
+        LetsBeRational.implied_volatility_from_a_strike_ordered_chain(price, F[0], K, T[0], q, volatility, status, 0, n);
+        return volatility;
+    }
+
+    @Benchmark
+    public double[] black_scholes_merton_batch() {
+        BlackScholesMerton.implied_volatility_from_a_transformed_rational_guess(S, expiry_T, expiry_r, expiry_dividend_yield, expiry_offset, discounted_price, K, q, volatility, status);
+        return volatility;
+    }
+
+    @Benchmark
+    public double[] black_scalar() {
+        for (int i = 0; i < n; i++) {
+            black_price[i] = LetsBeRational.black(F[i], K[i], sigma[i], T[i], q[i]);
+        }
+        return black_price;
+    }
+
+    @Benchmark
+    public double[] black_strike_grid() {
+        LetsBeRational.black(F[0], K, sigma, T[0], q[0], black_price, 0, n);
+        return black_price;
+    }
+
+}
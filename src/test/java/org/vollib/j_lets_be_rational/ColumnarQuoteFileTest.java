@@ -0,0 +1,125 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ColumnarQuoteFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final int n = 10007;
+
+    @Test
+    public void testSolveInWindows() throws Exception {
+        double[] price = new double[n], F = new double[n], K = new double[n], T = new double[n], q = new double[n];
+        Random random = new Random(11);
+        for (int i = 0; i < n; i++) {
+            F[i] = 100;
+            K[i] = 50 + 100 * random.nextDouble();
+            T[i] = 0.1 + 2 * random.nextDouble();
+            q[i] = random.nextBoolean() ? 1 : -1;
+            price[i] = LetsBeRational.black(F[i], K[i], 0.05 + random.nextDouble(), T[i], q[i]) * (0.9 + 0.2 * random.nextDouble());
+        }
+        double[] expected = new double[n];
+        int[] expectedStatus = new int[n];
+        LetsBeRational.implied_volatility_from_a_transformed_rational_guess(price, F, K, T, q, expected, expectedStatus, 0, n);
+
+        Path path = folder.getRoot().toPath().resolve("quotes.bin");
+        try (ColumnarQuoteFile file = ColumnarQuoteFile.create(path, n)) {
+            file.map(ColumnarQuoteFile.PRICE, 0, n).put(price);
+            file.map(ColumnarQuoteFile.F, 0, n).put(F);
+            file.map(ColumnarQuoteFile.K, 0, n).put(K);
+            file.map(ColumnarQuoteFile.T, 0, n).put(T);
+            file.map(ColumnarQuoteFile.Q, 0, n).put(q);
+        }
+        assertEquals(ColumnarQuoteFile.file_length(n), Files.size(path));
+        try (ColumnarQuoteFile file = ColumnarQuoteFile.open(path, true)) {
+            assertEquals(n, file.size());
+            file.solve(0, n, 1000);  // Not a multiple of the window size.
+            // Update quotes across a window boundary and solve them again.
+            DoubleBuffer updated = file.map(ColumnarQuoteFile.PRICE, 990, 20);
+            for (int i = 990; i < 1010; i++) {
+                price[i] *= 1.01;
+                updated.put(i - 990, price[i]);
+            }
+            file.solve(990, 20, 1000);
+            file.force();
+        }
+        LetsBeRational.implied_volatility_from_a_transformed_rational_guess(price, F, K, T, q, expected, expectedStatus, 990, 20);
+        try (ColumnarQuoteFile file = ColumnarQuoteFile.open(path, false)) {
+            DoubleBuffer volatility = file.map(ColumnarQuoteFile.VOLATILITY, 0, n);
+            IntBuffer status = file.map_status(0, n);
+            for (int i = 0; i < n; i++) {
+                assertEquals("quote " + i, Double.doubleToRawLongBits(expected[i]), Double.doubleToRawLongBits(volatility.get(i)));
+                assertEquals(expectedStatus[i], status.get(i));
+            }
+            try {
+                file.solve();
+                fail("Expected IOException");
+            } catch (IOException e) {
+                // Opened for reading only.
+            }
+        }
+    }
+
+    @Test
+    public void testColumnsBeyondTwoGigabytes() throws Exception {
+        // Every double column exceeds 2 GB. The file is sparse and only its last window is touched.
+        long size = (1L << 28) + 16;
+        Path path = folder.getRoot().toPath().resolve("large.bin");
+        try (ColumnarQuoteFile file = ColumnarQuoteFile.create(path, size)) {
+            long first = size - 8;
+            DoubleBuffer price = file.map(ColumnarQuoteFile.PRICE, first, 8), F = file.map(ColumnarQuoteFile.F, first, 8), K = file.map(ColumnarQuoteFile.K, first, 8), T = file.map(ColumnarQuoteFile.T, first, 8), q = file.map(ColumnarQuoteFile.Q, first, 8);
+            for (int i = 0; i < 8; i++) {
+                F.put(i, 100);
+                K.put(i, 90 + 5 * i);
+                T.put(i, 1);
+                q.put(i, -1);
+                price.put(i, LetsBeRational.black(100, 90 + 5 * i, 0.2 + 0.01 * i, 1, -1));
+            }
+            file.solve(first, 8, 3);
+            DoubleBuffer volatility = file.map(ColumnarQuoteFile.VOLATILITY, first, 8);
+            IntBuffer status = file.map_status(first, 8);
+            for (int i = 0; i < 8; i++) {
+                assertEquals(0.2 + 0.01 * i, volatility.get(i), 1e-14);
+                assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_OK, status.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidFile() throws Exception {
+        Path path = folder.getRoot().toPath().resolve("quotes.csv");
+        Files.write(path, "price,F,K,T,q\n".getBytes("US-ASCII"));
+        try (ColumnarQuoteFile file = ColumnarQuoteFile.open(path, false)) {
+            fail("Expected IOException");
+        } catch (IOException e) {
+            // Not a columnar quote file.
+        }
+        path = folder.getRoot().toPath().resolve("truncated.bin");
+        ColumnarQuoteFile.create(path, 100).close();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(ColumnarQuoteFile.file_length(99));
+        }
+        try (ColumnarQuoteFile file = ColumnarQuoteFile.open(path, false)) {
+            fail("Expected IOException");
+        } catch (IOException e) {
+            // The length does not match the header.
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ErfCodyTest {
+
+    private static double[] arguments() {
+        // Interval boundaries, cut-offs and special values, followed by random arguments across all intervals.
+        final double[] special = {0, -0.0, 1e-17, -1e-17, ErfCody.THRESH, -ErfCody.THRESH, Math.nextUp(ErfCody.THRESH), 4, -4, Math.nextUp(4.0),
+                ErfCody.XNEG, Math.nextDown(ErfCody.XNEG), ErfCody.XBIG, -ErfCody.XBIG, ErfCody.XHUGE, ErfCody.XMAX, -30, 1e300,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN};
+        final int n = 100000;
+        double[] x = new double[special.length + n];
+        System.arraycopy(special, 0, x, 0, special.length);
+        Random random = new Random(3);
+        for (int i = 0; i < n; i++) {
+            x[special.length + i] = 60 * (random.nextDouble() - 0.5);
+        }
+        return x;
+    }
+
+    @Test
+    public void testErfc_cody_array() {
+        double[] x = arguments();
+        double[] out = new double[x.length];
+        ErfCody.erfc_cody(x, out);
+        for (int i = 0; i < x.length; i++) {
+            assertEquals("x = " + x[i], Double.doubleToLongBits(ErfCody.erfc_cody(x[i])), Double.doubleToLongBits(out[i]));
+        }
+    }
+
+    @Test
+    public void testErfcx_cody_array() {
+        double[] x = arguments();
+        double[] out = new double[x.length];
+        ErfCody.erfcx_cody(x, out);
+        for (int i = 0; i < x.length; i++) {
+            assertEquals("x = " + x[i], Double.doubleToLongBits(ErfCody.erfcx_cody(x[i])), Double.doubleToLongBits(out[i]));
+        }
+    }
+
+    @Test
+    public void testOffsetAndLength() {
+        double[] x = {1, 2, 3, 4, 5};
+        double[] out = new double[5];
+        ErfCody.erfcx_cody(x, out, 1, 3);
+        assertEquals(0, out[0], 0);
+        assertEquals(ErfCody.erfcx_cody(2), out[1], 0);
+        assertEquals(ErfCody.erfcx_cody(4), out[3], 0);
+        assertEquals(0, out[4], 0);
+    }
+
+}
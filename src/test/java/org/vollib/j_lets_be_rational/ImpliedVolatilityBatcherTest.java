@@ -0,0 +1,179 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ImpliedVolatilityBatcherTest {
+
+    private static final int n = 10007;  // Not a multiple of the batch size.
+
+    private final double[] price = new double[n], F = new double[n], K = new double[n], T = new double[n], q = new double[n];
+    private final double[] expected = new double[n];
+    private final int[] expectedStatus = new int[n];
+
+    public ImpliedVolatilityBatcherTest() {
+        Random random = new Random(11);
+        for (int i = 0; i < n; i++) {
+            F[i] = 100;
+            K[i] = 50 + 100 * random.nextDouble();
+            T[i] = 0.1 + 2 * random.nextDouble();
+            q[i] = random.nextBoolean() ? 1 : -1;
+            price[i] = LetsBeRational.black(F[i], K[i], 0.05 + random.nextDouble(), T[i], q[i]) * (0.9 + 0.2 * random.nextDouble());
+        }
+        LetsBeRational.implied_volatility_from_a_transformed_rational_guess(price, F, K, T, q, expected, expectedStatus, 0, n);
+    }
+
+    /**
+     * Collects the results in order, and the sizes of the batches.
+     */
+    private static final class CollectingSink implements ImpliedVolatilityBatcher.Sink {
+        final List<Long> id = new ArrayList<>();
+        final List<Double> volatility = new ArrayList<>();
+        final List<Integer> status = new ArrayList<>();
+        final List<Integer> sizes = new ArrayList<>();
+
+        @Override
+        public synchronized void on_batch(long[] id, double[] volatility, int[] status, int length) {
+            for (int i = 0; i < length; i++) {
+                this.id.add(id[i]);
+                this.volatility.add(volatility[i]);
+                this.status.add(status[i]);
+            }
+            sizes.add(length);
+        }
+    }
+
+    @Test
+    public void testResultsMatchTheBatchSolver() throws InterruptedException {
+        CollectingSink sink = new CollectingSink();
+        try (ImpliedVolatilityBatcher batcher = new ImpliedVolatilityBatcher(256, 1, TimeUnit.SECONDS, sink)) {
+            for (int i = 0; i < n; i++)
+                batcher.submit(i, price[i], F[i], K[i], T[i], q[i]);
+        }
+        assertEquals(n, sink.id.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, (long) sink.id.get(i));
+            assertEquals(Double.doubleToLongBits(expected[i]), Double.doubleToLongBits(sink.volatility.get(i)));
+            assertEquals(expectedStatus[i], (int) sink.status.get(i));
+        }
+    }
+
+    @Test
+    public void testFullBatchesAreSolvedWithoutWaitingForTheLatency() throws InterruptedException {
+        CollectingSink sink = new CollectingSink();
+        try (ImpliedVolatilityBatcher batcher = new ImpliedVolatilityBatcher(100, 1, TimeUnit.HOURS, sink)) {
+            for (int i = 0; i < 1000; i++)
+                batcher.submit(i, price[i], F[i], K[i], T[i], q[i]);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (true) {
+                synchronized (sink) {
+                    if (sink.id.size() == 1000)
+                        break;
+                }
+                assertTrue(System.nanoTime() < deadline);
+                Thread.sleep(1);
+            }
+        }
+        assertEquals(10, sink.sizes.size());
+        for (int size : sink.sizes)
+            assertEquals(100, size);
+    }
+
+    @Test
+    public void testPartialBatchIsSolvedAfterTheLatency() throws InterruptedException {
+        final CountDownLatch emitted = new CountDownLatch(1);
+        final AtomicInteger length = new AtomicInteger();
+        try (ImpliedVolatilityBatcher batcher = new ImpliedVolatilityBatcher(1000, 20, TimeUnit.MILLISECONDS, (id, volatility, status, l) -> {
+            length.set(l);
+            emitted.countDown();
+        })) {
+            for (int i = 0; i < 3; i++)
+                batcher.submit(i, price[i], F[i], K[i], T[i], q[i]);
+            assertTrue(emitted.await(10, TimeUnit.SECONDS));
+            assertEquals(3, length.get());
+        }
+    }
+
+    @Test
+    public void testCloseFlushesPendingQuotes() throws InterruptedException {
+        CollectingSink sink = new CollectingSink();
+        try (ImpliedVolatilityBatcher batcher = new ImpliedVolatilityBatcher(1000, 1, TimeUnit.HOURS, sink)) {
+            for (int i = 0; i < 5; i++)
+                batcher.submit(i, price[i], F[i], K[i], T[i], q[i]);
+        }
+        assertEquals(5, sink.id.size());
+    }
+
+    @Test
+    public void testSubmitBlocksWhileTheSinkIsBehind() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final ImpliedVolatilityBatcher batcher = new ImpliedVolatilityBatcher(10, 0, TimeUnit.MILLISECONDS, 2, (id, volatility, status, length) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        final AtomicInteger submitted = new AtomicInteger();
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 100; i++) {
+                    batcher.submit(i, price[i], F[i], K[i], T[i], q[i]);
+                    submitted.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        Thread.sleep(200);
+        // One batch is held by the sink and the other is full.
+        assertTrue(submitted.get() < 100);
+        assertTrue(producer.isAlive());
+        release.countDown();
+        producer.join(10000);
+        assertFalse(producer.isAlive());
+        assertEquals(100, submitted.get());
+        batcher.close();
+    }
+
+    @Test
+    public void testSinkFailureIsReported() throws InterruptedException {
+        ImpliedVolatilityBatcher batcher = new ImpliedVolatilityBatcher(1, 0, TimeUnit.MILLISECONDS, (id, volatility, status, length) -> {
+            throw new IllegalArgumentException("sink");
+        });
+        try {
+            for (int i = 0; i < 1000; i++)
+                batcher.submit(i, price[i], F[i], K[i], T[i], q[i]);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("sink", e.getCause().getMessage());
+        }
+        try {
+            batcher.close();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("sink", e.getCause().getMessage());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubmitAfterClose() throws InterruptedException {
+        ImpliedVolatilityBatcher batcher = new ImpliedVolatilityBatcher(10, 1, TimeUnit.MILLISECONDS, (id, volatility, status, length) -> {
+        });
+        batcher.close();
+        batcher.submit(0, price[0], F[0], K[0], T[0], q[0]);
+    }
+
+}
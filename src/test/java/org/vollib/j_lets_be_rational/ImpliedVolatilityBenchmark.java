@@ -0,0 +1,63 @@
+package org.vollib.j_lets_be_rational;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implied volatility across moneyness x = ln(F/K) and total volatility s = σ·√T.
+ * <p>
+ * The parameter grid reaches all four branches of the transformed rational guess:
+ * the lower map at x=-1, s=0.5,
+ * the lower middle segment at x=-1, s=1,
+ * the upper middle segment at x=-1, s=2 and
+ * the upper map at x=-1, s=4.
+ * <p>
+ * The warm-started solve starts from a volatility half a percent off the solution, as for a quote that moved
+ * slightly since the previous tick. The strike context solve looks up the x-dependent set-up of the rational guess
+ * in a StrikeContextCache, as for a listed strike that is quoted repeatedly.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ImpliedVolatilityBenchmark {
+
+    @Param({"-20", "-1", "-0.1", "0.5"})
+    public double x;
+
+    @Param({"0.1", "0.5", "1", "2", "4"})
+    public double s;
+
+    private double price, F, K, T, q, sigma_previous;
+
+    private final StrikeContextCache cache = new StrikeContextCache(1024);
+
+    @Setup
+    public void setUp() {
+        F = 100;
+        K = F * Math.exp(-x);
+        T = 0.5;
+        q = 1;
+        price = LetsBeRational.black(F, K, s / Math.sqrt(T), T, q);
+        sigma_previous = 1.005 * s / Math.sqrt(T);
+    }
+
+    @Benchmark
+    public double implied_volatility_from_a_transformed_rational_guess() {
+        return LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow(price, F, K, T, q);
+    }
+
+    @Benchmark
+    public double implied_volatility_from_a_warm_start() {
+        return LetsBeRational.implied_volatility_from_a_warm_start_nothrow(price, F, K, T, q, sigma_previous);
+    }
+
+    @Benchmark
+    public double implied_volatility_from_a_strike_context() {
+        return LetsBeRational.implied_volatility_from_a_strike_context_nothrow(cache, price, F, K, T, q);
+    }
+
+}
@@ -0,0 +1,91 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ImpliedVolatilityCacheTest {
+
+    private static void assertCached(ImpliedVolatilityCache cache, double beta, double x, double q) {
+        assertEquals(Double.doubleToLongBits(LetsBeRational.normalised_implied_volatility_from_a_transformed_rational_guess_nothrow(beta, x, q)),
+                Double.doubleToLongBits(cache.normalised_implied_volatility_from_a_transformed_rational_guess_nothrow(beta, x, q)));
+    }
+
+    @Test
+    public void testHitsAndMisses() throws Exception {
+        ImpliedVolatilityCache cache = new ImpliedVolatilityCache(1024);
+        assertEquals(1024, cache.capacity());
+        assertEquals(0, cache.hit_rate(), 0);
+        double beta = LetsBeRational.normalised_black(-0.1, 0.3, 1);
+        assertCached(cache, beta, -0.1, 1);
+        assertCached(cache, beta, -0.1, 1);
+        assertCached(cache, beta, -0.1, -1);  // A different q is a different key.
+        assertCached(cache, Math.nextUp(beta), -0.1, 1);
+        assertCached(cache, 2, -0.1, 1);  // Above the maximum.
+        assertCached(cache, 2, -0.1, 1);
+        assertEquals(2, cache.hits());
+        assertEquals(4, cache.misses());
+        assertEquals(1. / 3, cache.hit_rate(), 1E-15);
+        cache.clear();
+        assertCached(cache, beta, -0.1, 1);
+        assertEquals(5, cache.misses());
+        cache.reset_statistics();
+        assertEquals(0, cache.hits() + cache.misses());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        ImpliedVolatilityCache cache = new ImpliedVolatilityCache(64);
+        Random random = new Random(37);
+        // Far more keys than slots, with a small hot set that is hit in between.
+        double[] hot = new double[4];
+        for (int i = 0; i < hot.length; i++)
+            hot[i] = LetsBeRational.normalised_black(-0.2, 0.1 + 0.1 * i, 1);
+        for (int i = 0; i < 10000; i++) {
+            double x = -random.nextDouble(), s = 0.05 + random.nextDouble();
+            assertCached(cache, LetsBeRational.normalised_black(x, s, 1), x, 1);
+            assertCached(cache, hot[i % hot.length], -0.2, 1);
+        }
+        // CLOCK keeps the hot keys: all but their first lookups, and perhaps an occasional bucket collision, are hits.
+        assertTrue(cache.hits() > 4900);
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final ImpliedVolatilityCache cache = new ImpliedVolatilityCache(256);
+        final double[] beta = new double[512], x = new double[512];
+        Random random = new Random(41);
+        for (int i = 0; i < beta.length; i++) {
+            x[i] = -2 * random.nextDouble();
+            beta[i] = LetsBeRational.normalised_black(x[i], 0.05 + random.nextDouble(), 1);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int seed = t;
+                futures.add(executor.submit(() -> {
+                    Random r = new Random(seed);
+                    for (int k = 0; k < 20000; k++) {
+                        int i = r.nextInt(beta.length);
+                        assertCached(cache, beta[i], x[i], 1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+                future.get();
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(80000, cache.hits() + cache.misses());
+    }
+
+}
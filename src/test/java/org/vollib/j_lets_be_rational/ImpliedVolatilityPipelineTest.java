@@ -0,0 +1,139 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ImpliedVolatilityPipelineTest {
+
+    private static final int n = 10007;  // Not a multiple of the chunk size.
+
+    private final double[] price = new double[n], F = new double[n], K = new double[n], T = new double[n], q = new double[n];
+    private final double[] expected = new double[n];
+    private final int[] expectedStatus = new int[n];
+
+    public ImpliedVolatilityPipelineTest() {
+        Random random = new Random(7);
+        for (int i = 0; i < n; i++) {
+            F[i] = 100;
+            K[i] = 50 + 100 * random.nextDouble();
+            T[i] = 0.1 + 2 * random.nextDouble();
+            q[i] = random.nextBoolean() ? 1 : -1;
+            price[i] = LetsBeRational.black(F[i], K[i], 0.05 + random.nextDouble(), T[i], q[i]) * (0.9 + 0.2 * random.nextDouble());
+        }
+        LetsBeRational.implied_volatility_from_a_transformed_rational_guess(price, F, K, T, q, expected, expectedStatus, 0, n);
+    }
+
+    private String csv() {
+        StringBuilder sb = new StringBuilder("price,F,K,T,q\n");
+        for (int i = 0; i < n; i++)
+            sb.append(price[i]).append(',').append(F[i]).append(',').append(K[i]).append(',').append(T[i]).append(',').append(q[i] > 0 ? "c" : "p").append('\n');
+        return sb.toString();
+    }
+
+    private byte[] binary() {
+        ByteBuffer buffer = ByteBuffer.allocate(n * BinaryQuoteReader.RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < n; i++)
+            buffer.putDouble(price[i]).putDouble(F[i]).putDouble(K[i]).putDouble(T[i]).putDouble(q[i]);
+        return buffer.array();
+    }
+
+    private void assertCsvOutput(String output) {
+        String[] lines = output.split("\n");
+        assertEquals(n + 1, lines.length);
+        assertEquals("volatility,status", lines[0]);
+        for (int i = 0; i < n; i++) {
+            String[] fields = lines[i + 1].split(",");
+            assertEquals("line " + (i + 1), Double.doubleToRawLongBits(expected[i]), Double.doubleToRawLongBits(Double.parseDouble(fields[0])));
+            assertEquals(expectedStatus[i], Integer.parseInt(fields[1]));
+        }
+    }
+
+    @Test
+    public void testCsvRoundTrip() throws Exception {
+        StringWriter output = new StringWriter();
+        try (CsvQuoteReader reader = new CsvQuoteReader(new StringReader(csv()), 1);
+             CsvQuoteWriter writer = new CsvQuoteWriter(output, true)) {
+            assertEquals(n, new ImpliedVolatilityPipeline(100, 3).run(reader, writer));
+        }
+        assertCsvOutput(output.toString());
+    }
+
+    @Test
+    public void testCsvRoundTripOnAPool() throws Exception {
+        StringWriter output = new StringWriter();
+        try (CsvQuoteReader reader = new CsvQuoteReader(new StringReader(csv()), 1);
+             CsvQuoteWriter writer = new CsvQuoteWriter(output, true)) {
+            assertEquals(n, new ImpliedVolatilityPipeline(1000, 4).run(reader, writer, ForkJoinPool.commonPool()));
+        }
+        assertCsvOutput(output.toString());
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BinaryQuoteReader reader = new BinaryQuoteReader(Channels.newChannel(new ByteArrayInputStream(binary())), 37);
+             BinaryQuoteWriter writer = new BinaryQuoteWriter(Channels.newChannel(output), 64)) {
+            assertEquals(n, new ImpliedVolatilityPipeline(100, 1).run(reader, writer));
+        }
+        ByteBuffer result = ByteBuffer.wrap(output.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(n * BinaryQuoteWriter.RECORD_SIZE, result.remaining());
+        for (int i = 0; i < n; i++) {
+            assertEquals("record " + i, Double.doubleToRawLongBits(expected[i]), Double.doubleToRawLongBits(result.getDouble()));
+            assertEquals(expectedStatus[i], result.getInt());
+        }
+    }
+
+    @Test
+    public void testEmptyInput() throws Exception {
+        StringWriter output = new StringWriter();
+        try (CsvQuoteReader reader = new CsvQuoteReader(new StringReader(""), 0);
+             CsvQuoteWriter writer = new CsvQuoteWriter(output, false)) {
+            assertEquals(0, new ImpliedVolatilityPipeline().run(reader, writer));
+        }
+        assertEquals("", output.toString());
+    }
+
+    @Test
+    public void testMalformedCsvLine() throws Exception {
+        String input = csv();
+        int at = -1;
+        for (int i = 0; i <= 5000; i++)  // The header and 5000 quotes.
+            at = input.indexOf('\n', at + 1);
+        input = input.substring(0, at + 1) + "0.1,100,abc,1,c\n" + input.substring(at + 1);
+        try (CsvQuoteReader reader = new CsvQuoteReader(new StringReader(input), 1);
+             CsvQuoteWriter writer = new CsvQuoteWriter(new StringWriter(), true)) {
+            new ImpliedVolatilityPipeline(100, 3).run(reader, writer);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Line 5002:"));
+        }
+    }
+
+    @Test
+    public void testTruncatedBinaryRecord() throws Exception {
+        byte[] input = binary();
+        try (BinaryQuoteReader reader = new BinaryQuoteReader(Channels.newChannel(new ByteArrayInputStream(input, 0, input.length - 3)), 100);
+             BinaryQuoteWriter writer = new BinaryQuoteWriter(Channels.newChannel(new ByteArrayOutputStream()), 100)) {
+            new ImpliedVolatilityPipeline(100, 3).run(reader, writer);
+            fail("Expected EOFException");
+        } catch (EOFException e) {
+            // The last record lacks 3 bytes.
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package org.vollib.j_lets_be_rational;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency percentiles of single-option requests from many contending client threads, through
+ * ImpliedVolatilityService with and without coalescing, against every client calling the static solver itself.
+ * The sample time mode reports the p99 latency of a request.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class ImpliedVolatilityServiceBenchmark {
+
+    private static final int n = 1024;
+
+    /**
+     * A max_batch_size of 1 disables coalescing.
+     */
+    @Param({"1", "64"})
+    public int max_batch_size;
+
+    double[] price, F, K, T, q;
+    ImpliedVolatilityService service;
+
+    @State(Scope.Thread)
+    public static class Client {
+        int i;
+    }
+
+    @Setup
+    public void setUp() {
+        service = new ImpliedVolatilityService(Runtime.getRuntime().availableProcessors(), max_batch_size);
+        price = new double[n];
+        F = new double[n];
+        K = new double[n];
+        T = new double[n];
+        q = new double[n];
+        Random random = new Random(17);
+        for (int i = 0; i < n; i++) {
+            F[i] = 100;
+            K[i] = 50 + 100 * random.nextDouble();
+            T[i] = 0.1 + 2 * random.nextDouble();
+            q[i] = K[i] < F[i] ? -1 : 1;
+            price[i] = LetsBeRational.black(F[i], K[i], 0.1 + 0.5 * random.nextDouble(), T[i], q[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        service.close();
+    }
+
+    @Benchmark
+    public double service(Client client) {
+        final int i = client.i++ & (n - 1);
+        return service.implied_volatility_from_a_transformed_rational_guess_nothrow(price[i], F[i], K[i], T[i], q[i]);
+    }
+
+    @Benchmark
+    public double direct(Client client) {
+        final int i = client.i++ & (n - 1);
+        return LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow(price[i], F[i], K[i], T[i], q[i]);
+    }
+
+}
@@ -0,0 +1,151 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ImpliedVolatilityServiceTest {
+
+    private static final int n = 4096;
+
+    private final double[] price = new double[n], F = new double[n], K = new double[n], T = new double[n], q = new double[n];
+    private final double[] expected = new double[n];
+
+    public ImpliedVolatilityServiceTest() {
+        Random random = new Random(13);
+        for (int i = 0; i < n; i++) {
+            F[i] = 100;
+            K[i] = 50 + 100 * random.nextDouble();
+            T[i] = 0.1 + 2 * random.nextDouble();
+            q[i] = random.nextBoolean() ? 1 : -1;
+            price[i] = LetsBeRational.black(F[i], K[i], 0.05 + random.nextDouble(), T[i], q[i]) * (0.9 + 0.2 * random.nextDouble());
+            expected[i] = LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow(price[i], F[i], K[i], T[i], q[i]);
+        }
+    }
+
+    /**
+     * Runs tasks only when asked to, so that the tests control when the workers run.
+     */
+    private static final class ManualExecutor extends AbstractExecutorService {
+        final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        boolean shutdown;
+
+        @Override
+        public void execute(Runnable command) {
+            if (shutdown)
+                throw new RejectedExecutionException();
+            tasks.add(command);
+        }
+
+        void run_all() {
+            for (Runnable task; (task = tasks.poll()) != null; )
+                task.run();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return null;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && tasks.isEmpty();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return isTerminated();
+        }
+    }
+
+    @Test
+    public void testConcurrentRequestsMatchTheScalarSolver() throws InterruptedException {
+        final int threads = 8;
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (ImpliedVolatilityService service = new ImpliedVolatilityService(4, 64)) {
+            Thread[] clients = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                final int first = t;
+                clients[t] = new Thread(() -> {
+                    try {
+                        for (int i = first; i < n; i += threads)
+                            assertEquals(Double.doubleToLongBits(expected[i]), Double.doubleToLongBits(service.implied_volatility_from_a_transformed_rational_guess_nothrow(price[i], F[i], K[i], T[i], q[i])));
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                });
+                clients[t].start();
+            }
+            for (Thread client : clients)
+                client.join();
+            assertEquals(n, service.requests());
+            assertTrue(service.batches() <= n);
+        }
+        if (failure.get() != null)
+            throw new AssertionError(failure.get());
+    }
+
+    @Test
+    public void testRequestsWaitingForABusyWorkerAreCoalesced() {
+        ManualExecutor executor = new ManualExecutor();
+        ImpliedVolatilityService service = new ImpliedVolatilityService(executor, 1, 100);
+        CompletableFuture<?>[] results = new CompletableFuture<?>[250];
+        for (int i = 0; i < results.length; i++)
+            results[i] = service.submit(price[i], F[i], K[i], T[i], q[i]);
+        // The first request started the only worker, and the others queued behind it.
+        assertEquals(1, executor.tasks.size());
+        for (CompletableFuture<?> result : results)
+            assertFalse(result.isDone());
+        executor.run_all();
+        for (int i = 0; i < results.length; i++)
+            assertEquals(expected[i], (Double) results[i].join(), 0);
+        assertEquals(250, service.requests());
+        assertEquals(3, service.batches());
+        // The worker has finished, so the next request starts another.
+        service.submit(price[0], F[0], K[0], T[0], q[0]);
+        assertEquals(1, executor.tasks.size());
+    }
+
+    @Test
+    public void testCheckedRequestThrows() throws InterruptedException {
+        try (ImpliedVolatilityService service = new ImpliedVolatilityService(1, 16)) {
+            try {
+                service.implied_volatility_from_a_transformed_rational_guess(200, 100, 100, 1, 1);
+                throw new AssertionError("Expected a VolatilityValueException.");
+            } catch (VolatilityValueException e) {
+                // The price of a call cannot exceed the forward.
+            }
+            assertEquals(Constants.VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM, service.implied_volatility_from_a_transformed_rational_guess_nothrow(200, 100, 100, 1, 1), 0);
+        }
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testSubmitAfterClose() throws InterruptedException {
+        ImpliedVolatilityService service = new ImpliedVolatilityService(1, 16);
+        service.close();
+        service.submit(price[0], F[0], K[0], T[0], q[0]);
+    }
+
+}
@@ -2,6 +2,7 @@ package org.vollib.j_lets_be_rational;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -59,6 +60,136 @@ public class LetsBeRationalTest {
         assertAlmostEqual(expected, actual);
     }
 
+    @Test
+    public void testImplied_volatility_from_a_transformed_rational_guess_batch() throws Exception {
+        double[] F = {100, 100, 100, 100, 100, 100};
+        double[] K = {80, 95, 100, 105, 120, 100};
+        double[] T = {.5, .5, .5, .5, .5, .5};
+        double[] q = {1, -1, 1, -1, 1, 1};  // CALL = 1 PUT = -1
+        double[] price = new double[F.length];
+        for (int i = 0; i < F.length; i++) {
+            price[i] = LetsBeRational.black(F[i], K[i], .25, T[i], q[i]);
+        }
+        q[4] = -1;  // in-the-money put
+        price[4] = 0.5 * (K[4] - F[4]);  // below intrinsic
+        price[5] = F[5];  // at the maximum
+
+        double[] volatility = new double[F.length + 2];
+        int[] status = new int[F.length + 2];
+        LetsBeRational.implied_volatility_from_a_transformed_rational_guess(price, F, K, T, q, volatility, status, 0, F.length);
+
+        for (int i = 0; i < 4; i++) {
+            assertAlmostEqual(LetsBeRational.implied_volatility_from_a_transformed_rational_guess(price[i], F[i], K[i], T[i], q[i]), volatility[i]);
+            assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_OK, status[i]);
+        }
+        assertEquals(Constants.VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC, volatility[4], 0);
+        assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_BELOW_INTRINSIC, status[4]);
+        assertEquals(Constants.VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM, volatility[5], 0);
+        assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_ABOVE_MAXIMUM, status[5]);
+        assertEquals(0, volatility[6], 0);
+    }
+
+    @Test
+    public void testImplied_volatility_from_a_transformed_rational_guess_nothrow() throws Exception {
+        double F = 100;
+        double K = 120;
+        double T = .5;
+        double q = -1;  // CALL = 1 PUT = -1
+
+        double actual = LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow(10, F, K, T, q);
+        assertEquals(Constants.VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_BELOW_INTRINSIC, actual, 0);
+        assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_BELOW_INTRINSIC, LetsBeRational.implied_volatility_status(actual));
+
+        actual = LetsBeRational.normalised_implied_volatility_from_a_transformed_rational_guess_nothrow(1, 0, q);
+        assertEquals(Constants.VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM, actual, 0);
+        assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_ABOVE_MAXIMUM, LetsBeRational.implied_volatility_status(actual));
+
+        try {
+            LetsBeRational.implied_volatility_from_a_transformed_rational_guess(10, F, K, T, q);
+            fail("Expected BelowIntrinsicException");
+        } catch (VolatilityValueException.BelowIntrinsicException e) {
+            assertTrue(e == VolatilityValueException.BelowIntrinsicException.INSTANCE);
+            assertEquals(0, e.getStackTrace().length);
+        }
+    }
+
+    @Test
+    public void testBlack_and_greeks() throws Exception {
+        double F = 100;
+        double T = .5;
+        double[] Ks = {1e-3, 20, 80, 99.99, 100, 100.01, 120, 500, 1e5};
+        double[] sigmas = {1e-4, .01, .2, .6, 3};
+        double[] qs = {1, -1};  // CALL = 1 PUT = -1
+        double[] greeks = new double[Constants.GREEKS_LENGTH + 3];
+        for (double K : Ks) {
+            for (double sigma : sigmas) {
+                for (double q : qs) {
+                    String message = String.format("K=%s sigma=%s q=%s", K, sigma, q);
+                    LetsBeRational.black_and_greeks(F, K, sigma, T, q, greeks, 3);
+                    assertEquals(message, Double.doubleToLongBits(LetsBeRational.black(F, K, sigma, T, q)), Double.doubleToLongBits(greeks[3 + Constants.GREEKS_PRICE]));
+
+                    double s = sigma * Math.sqrt(T), d1 = Math.log(F / K) / s + s / 2, d2 = d1 - s, phi = NormalDistribution.norm_pdf(d1);
+                    double delta = q < 0 ? -NormalDistribution.norm_cdf(-d1) : NormalDistribution.norm_cdf(d1);
+                    double vega = F * phi * Math.sqrt(T);
+                    assertEquals(message, delta, greeks[3 + Constants.GREEKS_DELTA], 1e-13 * Math.abs(delta) + 1e-300);
+                    assertEquals(message, phi / (F * s), greeks[3 + Constants.GREEKS_GAMMA], 1e-12 * phi / (F * s) + 1e-300);
+                    assertEquals(message, vega, greeks[3 + Constants.GREEKS_VEGA], 1e-12 * vega + 1e-300);
+                    assertEquals(message, -F * phi * sigma / (2 * Math.sqrt(T)), greeks[3 + Constants.GREEKS_THETA], 1e-12 * F * phi * sigma + 1e-300);
+                    assertEquals(message, -phi * d2 / sigma, greeks[3 + Constants.GREEKS_VANNA], 1e-12 * Math.abs(phi * d2 / sigma) + 1e-300);
+                    assertEquals(message, vega * d1 * d2 / sigma, greeks[3 + Constants.GREEKS_VOLGA], 1e-12 * Math.abs(vega * d1 * d2 / sigma) + 1e-300);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBlack_strike_grid() throws Exception {
+        double F = 100;
+        double T = .5;
+        double[] Ks = {1e-3, 20, 80, 99.99, 100, 100.01, 120, 500, 1e5, 50, 150, 100, 90};
+        double[] sigmas = {1e-4, .01, .2, .6, 3, 0, .3, 1e-300, 10, .25, .25, .25, Double.NaN};
+        double[] prices = new double[Ks.length + 2];
+        for (double q : new double[]{1, -1}) {
+            LetsBeRational.black(F, Ks, sigmas, T, q, prices, 0, Ks.length);
+            for (int i = 0; i < Ks.length; i++) {
+                String message = String.format("K=%s sigma=%s q=%s", Ks[i], sigmas[i], q);
+                assertEquals(message, Double.doubleToLongBits(LetsBeRational.black(F, Ks[i], sigmas[i], T, q)), Double.doubleToLongBits(prices[i]));
+            }
+        }
+        // Only the requested range is written.
+        double[] shifted = new double[Ks.length + 2];
+        LetsBeRational.black(F, Ks, sigmas, T, 1, shifted, 2, Ks.length - 2);
+        assertEquals(0, shifted[0], 0);
+        assertEquals(0, shifted[1], 0);
+        assertEquals(0, shifted[Ks.length], 0);
+        assertEquals(Double.doubleToLongBits(LetsBeRational.black(F, Ks[2], sigmas[2], T, 1)), Double.doubleToLongBits(shifted[2]));
+    }
+
+    @Test
+    public void testBlack_and_greeks_finite_differences() throws Exception {
+        double F = 100, K = 110, sigma = .3, T = .75, q = -1;
+        double[] greeks = new double[Constants.GREEKS_LENGTH];
+        LetsBeRational.black_and_greeks(F, K, sigma, T, q, greeks, 0);
+        double dF = 1e-3, dsigma = 1e-5, dT = 1e-6;
+        assertEquals((LetsBeRational.black(F + dF, K, sigma, T, q) - LetsBeRational.black(F - dF, K, sigma, T, q)) / (2 * dF), greeks[Constants.GREEKS_DELTA], 1e-8);
+        assertEquals((LetsBeRational.black(F + dF, K, sigma, T, q) - 2 * LetsBeRational.black(F, K, sigma, T, q) + LetsBeRational.black(F - dF, K, sigma, T, q)) / (dF * dF), greeks[Constants.GREEKS_GAMMA], 1e-5);
+        assertEquals((LetsBeRational.black(F, K, sigma + dsigma, T, q) - LetsBeRational.black(F, K, sigma - dsigma, T, q)) / (2 * dsigma), greeks[Constants.GREEKS_VEGA], 1e-6);
+        assertEquals(-(LetsBeRational.black(F, K, sigma, T + dT, q) - LetsBeRational.black(F, K, sigma, T - dT, q)) / (2 * dT), greeks[Constants.GREEKS_THETA], 1e-4);
+
+        double[] up = new double[Constants.GREEKS_LENGTH], down = new double[Constants.GREEKS_LENGTH];
+        LetsBeRational.black_and_greeks(F, K, sigma + dsigma, T, q, up, 0);
+        LetsBeRational.black_and_greeks(F, K, sigma - dsigma, T, q, down, 0);
+        assertEquals((up[Constants.GREEKS_DELTA] - down[Constants.GREEKS_DELTA]) / (2 * dsigma), greeks[Constants.GREEKS_VANNA], 1e-6);
+        assertEquals((up[Constants.GREEKS_VEGA] - down[Constants.GREEKS_VEGA]) / (2 * dsigma), greeks[Constants.GREEKS_VOLGA], 1e-5);
+
+        double[] batch = new double[2 * Constants.GREEKS_LENGTH];
+        LetsBeRational.black_and_greeks(new double[]{F, F}, new double[]{K, K}, new double[]{sigma, sigma}, new double[]{T, T}, new double[]{q, q}, batch, 1, 1);
+        for (int i = 0; i < Constants.GREEKS_LENGTH; i++) {
+            assertEquals(0, batch[i], 0);
+            assertEquals(greeks[i], batch[Constants.GREEKS_LENGTH + i], 0);
+        }
+    }
+
     @Test
     public void testNormalised_black() throws Exception {
         double F = 100;
@@ -135,6 +266,205 @@ public class LetsBeRationalTest {
         assertAlmostEqual(expected, actual);
     }
 
+    @Test
+    public void testNormalised_implied_volatility_from_a_warm_start() throws Exception {
+        double[] xs = {-20, -1, -0.1, 0, 0.5};
+        double[] ss = {0.1, 0.5, 1, 2, 4};
+        double[] qs = {1, -1};
+        for (double x : xs) {
+            for (double s : ss) {
+                for (double q : qs) {
+                    double beta = LetsBeRational.normalised_black(x, s, q);
+                    double cold = LetsBeRational.normalised_implied_volatility_from_a_transformed_rational_guess(beta, x, q);
+                    // Guesses close to the solution, as from the previous tick, and ones that should be rejected.
+                    double[] guesses = {s * 1.01, s * 0.99, s * 1.2, s * 1e-3, s * 1e3, 0, -1, Double.NaN, Double.POSITIVE_INFINITY};
+                    for (double guess : guesses) {
+                        double warm = LetsBeRational.normalised_implied_volatility_from_a_warm_start(beta, x, q, guess);
+                        assertEquals(String.format("x=%s s=%s q=%s guess=%s", x, s, q, guess), cold, warm, 1e-13 * cold);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNormalised_implied_volatility_from_a_warm_start_far_out_of_the_money() throws Exception {
+        // Tiny time values, where a step from a guess slightly off leaves the branch of the guess.
+        double[] xs = {-1, -3, -6.6077, -10, -20, -50, -100};
+        double[] betas = {1e-30, 1e-100, 1e-205, 1e-290};
+        double[] factors = {0.8, 0.9, 0.99, 0.999, 1.001, 1.01, 1.1, 1.24};
+        for (double x : xs) {
+            for (double beta : betas) {
+                double cold = LetsBeRational.normalised_implied_volatility_from_a_transformed_rational_guess(beta, x, 1);
+                for (double factor : factors) {
+                    double warm = LetsBeRational.normalised_implied_volatility_from_a_warm_start(beta, x, 1, cold * factor);
+                    assertEquals(String.format("x=%s beta=%s factor=%s", x, beta, factor), cold, warm, 1e-13 * cold);
+                }
+            }
+        }
+        double s = 0.1743, beta = LetsBeRational.normalised_black(-6.6077, s, 1);
+        assertEquals(s, LetsBeRational.normalised_implied_volatility_from_a_warm_start(beta, -6.6077, 1, 0.99 * s), 1e-8 * s);
+    }
+
+    @Test
+    public void testNormalised_implied_volatility_from_a_warm_start_subnormal_price() throws Exception {
+        // Subnormal prices carry too few bits for full accuracy, but the result must still be as good as the cold one.
+        double[] xs = {-0.1, -1, -6.6077, -20, -100};
+        double[] betas = {1e-310, 4e-317, 1e-320};
+        double[] factors = {0.9, 0.99, 1.01, 1.1};
+        for (double x : xs) {
+            for (double beta : betas) {
+                double cold = LetsBeRational.normalised_implied_volatility_from_a_transformed_rational_guess(beta, x, 1);
+                for (double factor : factors) {
+                    double warm = LetsBeRational.normalised_implied_volatility_from_a_warm_start(beta, x, 1, cold * factor);
+                    assertEquals(String.format("x=%s beta=%s factor=%s", x, beta, factor), cold, warm, 1e-6 * cold);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNormalised_implied_volatility_from_a_warm_start_bounds_its_fallback() throws Exception {
+        // At |x| ≈ 800 the rational guess needs binary nesting, which two iterations leave far from converged. A rejected
+        // guess above the solution bounds the bracket of the fallback, whose midpoint then lands much closer.
+        double x = -790, s = 22.5, beta = LetsBeRational.normalised_black(x, s, 1);
+        double cold = LetsBeRational.normalised_implied_volatility_from_a_transformed_rational_guess(beta, x, 1);
+        SolverMetrics.enable();
+        SolverMetrics.reset();
+        double warm;
+        try {
+            warm = LetsBeRational.normalised_implied_volatility_from_a_warm_start(beta, x, 1, 1.3 * s);
+            assertEquals(1, SolverMetrics.warm_start_fallbacks());
+            assertEquals(1, SolverMetrics.bisection_fallbacks());
+        } finally {
+            SolverMetrics.disable();
+            SolverMetrics.reset();
+        }
+        double cold_residual = Math.abs(Math.log(LetsBeRational.normalised_black(x, cold, 1) / beta));
+        double warm_residual = Math.abs(Math.log(LetsBeRational.normalised_black(x, warm, 1) / beta));
+        assertTrue(String.format("cold=%s warm=%s", cold, warm), warm_residual < 0.1 * cold_residual);
+    }
+
+    @Test
+    public void testImplied_volatility_from_a_warm_start_batch() throws Exception {
+        double[] F = {100, 100, 100, 100, 100, 100};
+        double[] K = {80, 95, 100, 105, 120, 100};
+        double[] T = {.5, .5, .5, .5, .5, .5};
+        double[] q = {1, -1, 1, -1, 1, 1};  // CALL = 1 PUT = -1
+        double[] price = new double[F.length];
+        for (int i = 0; i < F.length; i++) {
+            price[i] = LetsBeRational.black(F[i], K[i], .25, T[i], q[i]);
+        }
+        price[5] = F[5];  // at the maximum
+
+        double[] volatility = {.24, .26, .2, Constants.VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM, .25, .25};
+        int[] status = new int[F.length];
+        LetsBeRational.implied_volatility_from_a_warm_start(price, F, K, T, q, volatility, status, 0, F.length);
+
+        for (int i = 0; i < 5; i++) {
+            assertAlmostEqual(.25, volatility[i]);
+            assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_OK, status[i]);
+        }
+        assertEquals(Constants.VOLATILITY_VALUE_TO_SIGNAL_PRICE_IS_ABOVE_MAXIMUM, volatility[5], 0);
+        assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_ABOVE_MAXIMUM, status[5]);
+    }
+
+    @Test
+    public void testImplied_volatility_from_a_strike_ordered_chain() throws Exception {
+        double F = 100;
+        double T = .5;
+        int n = 401;
+        double[] K = new double[n], q = new double[n], price = new double[n], volatility = new double[n];
+        int[] status = new int[n];
+        for (int i = 0; i < n; i++) {
+            K[i] = 40 + 120.0 * i / (n - 1);
+            q[i] = K[i] < F ? -1 : 1;
+            double x = Math.log(F / K[i]);
+            price[i] = LetsBeRational.black(F, K[i], .25 - .15 * x + .3 * x * x, T, q[i]);
+        }
+        price[100] = 0;  // A zero volatility.
+        price[101] = 2 * K[101];  // Above the maximum, so that the next strike is seeded from its neighbour's neighbour.
+        price[300] = F;  // Above the maximum.
+        SolverMetrics.enable();
+        SolverMetrics.reset();
+        try {
+            LetsBeRational.implied_volatility_from_a_strike_ordered_chain(price, F, K, T, q, volatility, status, 0, n);
+            // All but the first strike and the three out-of-range prices, which need no iteration, started from a
+            // neighbour, without falling back to the rational guess.
+            assertEquals(n - 4, SolverMetrics.branch_hits(SolverMetrics.BRANCH_WARM_START));
+            assertEquals(0, SolverMetrics.warm_start_fallbacks());
+        } finally {
+            SolverMetrics.disable();
+            SolverMetrics.reset();
+        }
+        for (int i = 0; i < n; i++) {
+            double cold = LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow(price[i], F, K[i], T, q[i]);
+            assertEquals("K=" + K[i], cold, volatility[i], 1e-13 * Math.abs(cold));
+            assertEquals("K=" + K[i], LetsBeRational.implied_volatility_status(cold), status[i]);
+        }
+        // The order affects the speed, and the results only within the solver's accuracy.
+        double[] reversed_K = new double[n], reversed_q = new double[n], reversed_price = new double[n], reversed_volatility = new double[n];
+        for (int i = 0; i < n; i++) {
+            reversed_K[i] = K[n - 1 - i];
+            reversed_q[i] = q[n - 1 - i];
+            reversed_price[i] = price[n - 1 - i];
+        }
+        LetsBeRational.implied_volatility_from_a_strike_ordered_chain(reversed_price, F, reversed_K, T, reversed_q, reversed_volatility, null, 0, n);
+        for (int i = 0; i < n; i++)
+            assertEquals("K=" + K[i], volatility[i], reversed_volatility[n - 1 - i], 1e-13 * Math.abs(volatility[i]));
+    }
+
+    @Test
+    public void testImplied_volatility_from_a_strike_ordered_chain_with_tiny_wing_prices() throws Exception {
+        double F = 100;
+        double T = .01;
+        int n = 161;
+        double[] K = new double[n], q = new double[n], price = new double[n], volatility = new double[n];
+        double[] Fs = new double[n], Ts = new double[n], expected = new double[n];
+        int[] status = new int[n], expected_status = new int[n];
+        for (int i = 0; i < n; i++) {
+            // Strikes from F/55 to 55·F, where the out-of-the-money prices fall to the bottom of the double range, and
+            // the implied volatilities of neighbours differ by up to 1.3%.
+            K[i] = F * Math.exp(-4 + 8.0 * i / (n - 1));
+            q[i] = K[i] < F ? -1 : 1;
+            Fs[i] = F;
+            Ts[i] = T;
+            double x = Math.log(F / K[i]);
+            price[i] = LetsBeRational.black(F, K[i], .3 - .05 * x + .02 * x * x, T, q[i]);
+        }
+        LetsBeRational.implied_volatility_from_a_strike_ordered_chain(price, F, K, T, q, volatility, status, 0, n);
+        LetsBeRational.implied_volatility_from_a_transformed_rational_guess(price, Fs, K, Ts, q, expected, expected_status, 0, n);
+        for (int i = 0; i < n; i++) {
+            String message = String.format("K=%s price=%s", K[i], price[i]);
+            assertEquals(message, expected_status[i], status[i]);
+            if (!(Math.abs(volatility[i] - expected[i]) <= 1e-13 * Math.abs(expected[i]))) {
+                // Subnormal prices hold too few bits to determine the volatility, which must reprice them as well as the cold one.
+                assertTrue(message, price[i] < Double.MIN_NORMAL);
+                double error = Math.abs(LetsBeRational.black(F, K[i], volatility[i], T, q[i]) - price[i]);
+                assertTrue(message, error <= Math.abs(LetsBeRational.black(F, K[i], expected[i], T, q[i]) - price[i]));
+            }
+        }
+    }
+
+    @Test
+    public void testImplied_volatility_from_a_transformed_rational_guess_with_tolerance() throws Exception {
+        java.util.Random random = new java.util.Random(31);
+        for (int i = 0; i < 10000; i++) {
+            double F = 100, K = 100 * Math.exp(-3 + 6 * random.nextDouble()), T = 0.05 + 3 * random.nextDouble(), q = random.nextBoolean() ? 1 : -1;
+            double price = LetsBeRational.black(F, K, 0.05 + random.nextDouble(), T, q);
+            double expected = LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow(price, F, K, T, q);
+            // The default tolerance reproduces the fixed-iteration solve.
+            assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(LetsBeRational.implied_volatility_from_a_transformed_rational_guess_with_tolerance_nothrow(price, F, K, T, q, Constants.DBL_EPSILON, 0)));
+            assertEquals(expected, LetsBeRational.implied_volatility_from_a_transformed_rational_guess_with_tolerance_nothrow(price, F, K, T, q, 1E-8, 0), 1E-8 * expected);
+            assertEquals(expected, LetsBeRational.implied_volatility_from_a_transformed_rational_guess_with_tolerance_nothrow(price, F, K, T, q, 0, 1E-6), 1E-6);
+        }
+        double[] price = {LetsBeRational.black(100, 110, .3, 1, 1), 5}, F = {100, 100}, K = {110, 90}, T = {1, 1}, q = {1, 1}, volatility = new double[2];
+        int[] status = new int[2];
+        LetsBeRational.implied_volatility_from_a_transformed_rational_guess_with_tolerance(price, F, K, T, q, volatility, status, 0, 2, 1E-8, 0);
+        assertEquals(.3, volatility[0], 1E-8 * .3);
+        assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_BELOW_INTRINSIC, status[1]);
+    }
+
     @Test
     public void testNormalised_vega() throws Exception {
         double x = 0.0;
@@ -0,0 +1,94 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OptionChainStoreTest {
+
+    private static void assertSolved(OptionChainStore store, int row) {
+        double[] expected = new double[Constants.GREEKS_LENGTH];
+        double v = store.volatility(row);
+        assertEquals(LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow(store.price(row), store.forward(row), store.strike(row), store.time_to_expiry(row), store.q(row)), v, 1e-14);
+        LetsBeRational.black_and_greeks(store.forward(row), store.strike(row), v, store.time_to_expiry(row), store.q(row), expected, 0);
+        for (int greek = 0; greek < Constants.GREEKS_LENGTH; greek++)
+            assertEquals(Double.doubleToLongBits(expected[greek]), Double.doubleToLongBits(store.greek(row, greek)));
+    }
+
+    @Test
+    public void testSolveOnlyDirtyRows() throws Exception {
+        OptionChainStore store = new OptionChainStore(100);
+        for (int i = 0; i < 100; i++) {
+            double K = 50 + i, q = K < 100 ? -1 : 1;  // Out of the money, where the implied volatility is well conditioned.
+            assertEquals(i, store.add(100, K, 0.5, q, LetsBeRational.black(100, K, 0.2 + 0.001 * i, 0.5, q)));
+        }
+        assertEquals(100, store.dirty_rows());
+        assertEquals(100, store.solve_dirty());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0.2 + 0.001 * i, store.volatility(i), 1e-13);
+            assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_OK, store.status(i));
+            assertSolved(store, i);
+        }
+        assertEquals(0, store.solve_dirty());
+
+        // A tick on three quotes, one of them unchanged.
+        double untouched = store.volatility(10);
+        store.set_price(3, LetsBeRational.black(100, 53, 0.25, 0.5, -1));
+        store.set_forward(20, 101);
+        store.set_price(30, store.price(30));
+        assertTrue(store.is_dirty(3));
+        assertTrue(store.is_dirty(20));
+        assertFalse(store.is_dirty(30));
+        assertEquals(2, store.solve_dirty());
+        assertEquals(0.25, store.volatility(3), 1e-13);
+        assertSolved(store, 3);
+        assertSolved(store, 20);
+        assertEquals(Double.doubleToLongBits(untouched), Double.doubleToLongBits(store.volatility(10)));
+    }
+
+    @Test
+    public void testOutOfRangePrice() throws Exception {
+        OptionChainStore store = new OptionChainStore(1);
+        store.add(100, 90, 1, 1, 5);  // Below the intrinsic value of 10.
+        store.solve_all();
+        assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_BELOW_INTRINSIC, store.status(0));
+        assertTrue(Double.isNaN(store.greek(0, Constants.GREEKS_VEGA)));
+        store.set_price(0, 12);
+        store.solve_dirty();
+        assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_OK, store.status(0));
+        assertSolved(store, 0);
+    }
+
+    @Test
+    public void testTicksInTheWings() throws Exception {
+        // Far out-of-the-money calls with normalised prices of about 1e-291, whose implied volatilities then tick up by
+        // 5%, so that the Black function underflows at the warm starts from the previous volatilities.
+        double[] x = {-1.28, -1.445, -6.125, -7.605, -14.045, -17.405, -25.205, -31.205};
+        double[] sigma = {0.03521005201684519, 0.039810717055349734, 0.1685259044750751, 0.20892961308540386, 0.3860705432153811, 0.47863009232263853, 0.6918309709189363, 0.8576958985908937};
+        int n = x.length;
+        OptionChainStore store = new OptionChainStore(n + 1);
+        store.add(100, 100, 1, 1, LetsBeRational.black(100, 100, 0.2, 1, 1));  // A clean row in front of the run.
+        for (int i = 0; i < n; i++) {
+            double K = 100 * Math.exp(-x[i]);
+            store.add(100, K, 1, 1, LetsBeRational.black(100, K, 0.95 * sigma[i], 1, 1));
+        }
+        store.solve_all();
+        for (int i = 0; i < n; i++)
+            store.set_price(i + 1, LetsBeRational.black(100, store.strike(i + 1), sigma[i], 1, 1));
+        assertEquals(n, store.solve_dirty());
+        for (int i = 0; i <= n; i++) {
+            assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_OK, store.status(i));
+            assertSolved(store, i);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFull() throws Exception {
+        OptionChainStore store = new OptionChainStore(1);
+        store.add(100, 100, 1, 1, 10);
+        store.add(100, 100, 1, 1, 10);
+    }
+
+}
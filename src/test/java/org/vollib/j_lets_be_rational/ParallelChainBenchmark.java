@@ -0,0 +1,62 @@
+package org.vollib.j_lets_be_rational;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of ParallelImpliedVolatility from one to many threads on a chain of a million strikes.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelChainBenchmark {
+
+    private static final int n = 1000000;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    @Param({"1024"})
+    public int grain_size;
+
+    double[] price, F, K, T, q, volatility;
+    int[] status;
+    ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+        price = new double[n];
+        F = new double[n];
+        K = new double[n];
+        T = new double[n];
+        q = new double[n];
+        volatility = new double[n];
+        status = new int[n];
+        Arrays.fill(F, 100);
+        Arrays.fill(T, 0.5);
+        for (int i = 0; i < n; i++) {
+            K[i] = 50 + 100.0 * i / n;
+            q[i] = K[i] < F[i] ? -1 : 1;
+            price[i] = LetsBeRational.black(F[i], K[i], 0.2 + 0.1 * Math.abs(Math.log(F[i] / K[i])), T[i], q[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public double[] forkJoin() {
+        ParallelImpliedVolatility.implied_volatility_from_a_transformed_rational_guess(pool, grain_size, price, F, K, T, q, volatility, status, 0, n);
+        return volatility;
+    }
+
+}
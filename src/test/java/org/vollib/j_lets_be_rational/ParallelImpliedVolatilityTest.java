@@ -0,0 +1,83 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ParallelImpliedVolatilityTest {
+
+    private static final int n = 20000;
+
+    private final double[] price = new double[n], F = new double[n], K = new double[n], T = new double[n], q = new double[n];
+    private final double[] expected = new double[n];
+    private final int[] expectedStatus = new int[n];
+
+    public ParallelImpliedVolatilityTest() {
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) {
+            F[i] = 100;
+            K[i] = 50 + 100 * random.nextDouble();
+            T[i] = 0.1 + 2 * random.nextDouble();
+            q[i] = random.nextBoolean() ? 1 : -1;
+            price[i] = LetsBeRational.black(F[i], K[i], 0.05 + random.nextDouble(), T[i], q[i]) * (0.9 + 0.2 * random.nextDouble());
+        }
+        LetsBeRational.implied_volatility_from_a_transformed_rational_guess(price, F, K, T, q, expected, expectedStatus, 0, n);
+    }
+
+    private void assertBitIdentical(double[] actual, int[] status) {
+        for (int i = 0; i < n; i++) {
+            assertEquals("element " + i, Double.doubleToRawLongBits(expected[i]), Double.doubleToRawLongBits(actual[i]));
+        }
+        assertArrayEquals(expectedStatus, status);
+    }
+
+    @Test
+    public void testForkJoinPool() throws Exception {
+        for (int threads = 1; threads <= 4; threads++) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                for (int grain_size : new int[]{1, 7, 1000, n}) {
+                    double[] volatility = new double[n];
+                    int[] status = new int[n];
+                    ParallelImpliedVolatility.implied_volatility_from_a_transformed_rational_guess(pool, grain_size, price, F, K, T, q, volatility, status, 0, n);
+                    assertBitIdentical(volatility, status);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void testExecutor() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int grain_size : new int[]{1, 7, 1000, n}) {
+                double[] volatility = new double[n];
+                int[] status = new int[n];
+                ParallelImpliedVolatility.implied_volatility_from_a_transformed_rational_guess(executor, grain_size, price, F, K, T, q, volatility, status, 0, n);
+                assertBitIdentical(volatility, status);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testOffsetAndLength() throws Exception {
+        double[] volatility = new double[n];
+        int[] status = new int[n];
+        ParallelImpliedVolatility.implied_volatility_from_a_transformed_rational_guess(ForkJoinPool.commonPool(), 100, price, F, K, T, q, volatility, status, 10, n - 20);
+        for (int i = 0; i < n; i++) {
+            final double value = (i < 10 || i >= n - 10) ? 0 : expected[i];
+            assertEquals("element " + i, Double.doubleToRawLongBits(value), Double.doubleToRawLongBits(volatility[i]));
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class SinglePrecisionTest {
+
+    @Test
+    public void testImplied_volatility_from_a_transformed_rational_guess() throws Exception {
+        check_implied_volatility(10, 29, 0.5);
+    }
+
+    @Test
+    public void testImplied_volatility_from_a_transformed_rational_guess_far_from_the_money() throws Exception {
+        // A single iteration leaves errors of about 40·FLT_EPSILON at |ln(F/K)| ≈ 20, and 100·FLT_EPSILON at 80. Most
+        // prices this far out of the money underflow in float, and are not solved.
+        check_implied_volatility(80, 31, 0.1);
+    }
+
+    private static void check_implied_volatility(double moneyness, long seed, double minimum_solved_fraction) {
+        int n = 100000;
+        float[] price = new float[n], F = new float[n], K = new float[n], T = new float[n], q = new float[n], volatility = new float[n];
+        int[] status = new int[n];
+        Random random = new Random(seed);
+        for (int i = 0; i < n; i++) {
+            F[i] = 100;
+            K[i] = (float) (100 * Math.exp(moneyness * (2 * random.nextDouble() - 1)));
+            T[i] = 1;
+            q[i] = random.nextBoolean() ? 1 : -1;
+            price[i] = SinglePrecision.black(F[i], K[i], (float) Math.pow(10, -3 + 4 * random.nextDouble()), T[i], q[i]);
+        }
+        SinglePrecision.implied_volatility_from_a_transformed_rational_guess(price, F, K, T, q, volatility, status, 0, n);
+        int solved = 0;
+        for (int i = 0; i < n; i++) {
+            double expected = LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow(price[i], F[i], K[i], T[i], q[i]);
+            assertEquals(LetsBeRational.implied_volatility_status(expected), status[i]);
+            if (status[i] == Constants.IMPLIED_VOLATILITY_STATUS_OK && price[i] > 0) {
+                assertEquals("element " + i, expected, volatility[i], SinglePrecision.RELATIVE_ACCURACY * expected);
+                assertEquals(volatility[i], SinglePrecision.implied_volatility_from_a_transformed_rational_guess_nothrow(price[i], F[i], K[i], T[i], q[i]), 0);
+                ++solved;
+            }
+        }
+        assertEquals(true, solved > minimum_solved_fraction * n);
+    }
+
+    @Test
+    public void testBlack() throws Exception {
+        float[] F = {100, 100, 100}, K = {90, 100, 110}, sigma = {.2f, .3f, .4f}, T = {.5f, 1, 2}, q = {1, -1, 1}, price = new float[3];
+        SinglePrecision.black(F, K, sigma, T, q, price, 0, 3);
+        for (int i = 0; i < 3; i++)
+            assertEquals((float) LetsBeRational.black(F[i], K[i], sigma[i], T[i], q[i]), price[i], 0);
+    }
+
+    @Test
+    public void testOutOfRange() throws Exception {
+        float[] price = {5, 101}, F = {100, 100}, K = {90, 90}, T = {1, 1}, q = {1, 1}, volatility = new float[2];
+        int[] status = new int[2];
+        SinglePrecision.implied_volatility_from_a_transformed_rational_guess(price, F, K, T, q, volatility, status, 0, 2);
+        assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_BELOW_INTRINSIC, status[0]);
+        assertEquals(Float.NEGATIVE_INFINITY, volatility[0], 0);
+        assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_ABOVE_MAXIMUM, status[1]);
+        assertEquals(Float.POSITIVE_INFINITY, volatility[1], 0);
+    }
+
+}
@@ -0,0 +1,88 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SolverMetricsTest {
+
+    @Before
+    public void setUp() {
+        SolverMetrics.reset();
+        SolverMetrics.enable();
+    }
+
+    @After
+    public void tearDown() {
+        SolverMetrics.disable();
+        SolverMetrics.reset();
+    }
+
+    private static void solve(double x, double s) {
+        LetsBeRational.normalised_implied_volatility_from_a_transformed_rational_guess_nothrow(LetsBeRational.normalised_black(x, s, 1), x, 1);
+    }
+
+    @Test
+    public void testBranchHits() throws Exception {
+        solve(-1, 0.5);
+        solve(-1, 1);
+        solve(-1, 1);
+        solve(-1, 2);
+        solve(-1, 4);
+        solve(-1, 4);
+        solve(-1, 4);
+        assertEquals(1, SolverMetrics.branch_hits(SolverMetrics.BRANCH_LOWER_MAP));
+        assertEquals(2, SolverMetrics.branch_hits(SolverMetrics.BRANCH_LOWER_MIDDLE));
+        assertEquals(1, SolverMetrics.branch_hits(SolverMetrics.BRANCH_UPPER_MIDDLE));
+        assertEquals(3, SolverMetrics.branch_hits(SolverMetrics.BRANCH_UPPER_MAP));
+        assertEquals(7, SolverMetrics.solves());
+        long histogram = 0;
+        for (int i = 0; i < SolverMetrics.ITERATION_HISTOGRAM_SIZE; i++) {
+            histogram += SolverMetrics.iteration_count(i);
+        }
+        assertEquals(7, histogram);
+        assertEquals(0, SolverMetrics.iteration_count(LetsBeRational.implied_volatility_maximum_iterations + 1));
+    }
+
+    @Test
+    public void testOutOfRangeSolvesAreCountedWithoutIterations() throws Exception {
+        LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow(10, 100, 120, 0.5, -1);
+        LetsBeRational.normalised_implied_volatility_from_a_transformed_rational_guess_nothrow(1, 0, 1);
+        assertEquals(2, SolverMetrics.solves());
+        assertEquals(2, SolverMetrics.iteration_count(0));
+    }
+
+    @Test
+    public void testWarmStartFallbacks() throws Exception {
+        double beta = LetsBeRational.normalised_black(-1, 1, 1);
+        LetsBeRational.normalised_implied_volatility_from_a_warm_start_nothrow(beta, -1, 1, 1.001);
+        assertEquals(1, SolverMetrics.branch_hits(SolverMetrics.BRANCH_WARM_START));
+        assertEquals(0, SolverMetrics.warm_start_fallbacks());
+        LetsBeRational.normalised_implied_volatility_from_a_warm_start_nothrow(beta, -1, 1, 100);
+        assertEquals(2, SolverMetrics.branch_hits(SolverMetrics.BRANCH_WARM_START));
+        assertEquals(1, SolverMetrics.warm_start_fallbacks());
+        assertEquals(1, SolverMetrics.branch_hits(SolverMetrics.BRANCH_LOWER_MIDDLE));
+        assertEquals(2, SolverMetrics.solves());
+    }
+
+    @Test
+    public void testUpperMapQuadraticFallback() throws Exception {
+        solve(-500, 33.944867131461166);
+        assertEquals(1, SolverMetrics.branch_hits(SolverMetrics.BRANCH_UPPER_MAP));
+        assertEquals(1, SolverMetrics.upper_map_quadratic_fallbacks());
+        assertEquals(0, SolverMetrics.lower_map_quadratic_fallbacks());
+        assertTrue(SolverMetrics.summary().contains("upper map quadratic=1"));
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        SolverMetrics.disable();
+        solve(-1, 1);
+        assertEquals(0, SolverMetrics.solves());
+        assertEquals(0, SolverMetrics.branch_hits(SolverMetrics.BRANCH_LOWER_MIDDLE));
+    }
+
+}
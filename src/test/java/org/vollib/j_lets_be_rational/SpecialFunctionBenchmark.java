@@ -0,0 +1,92 @@
+package org.vollib.j_lets_be_rational;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The special functions underneath every Black price, with arguments in each of their evaluation intervals.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecialFunctionBenchmark {
+
+    @State(Scope.Thread)
+    public static class ErfcxArgument {
+        // Cody's three intervals |x| <= 0.46875, |x| <= 4 and beyond, plus a negative argument.
+        @Param({"0.3", "2", "10", "-2"})
+        public double x;
+    }
+
+    @State(Scope.Thread)
+    public static class NormCdfArgument {
+        // The asymptotic expansion below -10 and erfc_cody() above.
+        @Param({"-12", "-3", "0.5"})
+        public double z;
+    }
+
+    @State(Scope.Thread)
+    public static class InverseNormCdfArgument {
+        // The central region of AS241 and its two tail regions.
+        @Param({"0.3", "0.01", "1.0E-20"})
+        public double u;
+    }
+
+    @State(Scope.Thread)
+    public static class ErfcxArguments {
+        public double[] x = new double[1024], out = new double[1024];
+
+        @Setup
+        public void setUp() {
+            java.util.Random random = new java.util.Random(11);
+            for (int i = 0; i < x.length; i++) {
+                x[i] = 12 * (random.nextDouble() - 0.25);
+            }
+        }
+    }
+
+    @Benchmark
+    public double erfcx_cody(ErfcxArgument argument) {
+        return ErfCody.erfcx_cody(argument.x);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public double[] erfcx_cody_scalar_loop(ErfcxArguments arguments) {
+        for (int i = 0; i < arguments.x.length; i++) {
+            arguments.out[i] = ErfCody.erfcx_cody(arguments.x[i]);
+        }
+        return arguments.out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public double[] erfcx_cody_array(ErfcxArguments arguments) {
+        ErfCody.erfcx_cody(arguments.x, arguments.out);
+        return arguments.out;
+    }
+
+    @Benchmark
+    public double norm_cdf(NormCdfArgument argument) {
+        return NormalDistribution.norm_cdf(argument.z);
+    }
+
+    @Benchmark
+    public double inverse_norm_cdf(InverseNormCdfArgument argument) {
+        return NormalDistribution.inverse_norm_cdf(argument.u);
+    }
+
+    @Benchmark
+    public double tabulated_norm_cdf(NormCdfArgument argument) {
+        return TabulatedNormalDistribution.norm_cdf(argument.z);
+    }
+
+    @Benchmark
+    public double tabulated_inverse_norm_cdf(InverseNormCdfArgument argument) {
+        return TabulatedNormalDistribution.inverse_norm_cdf(argument.u);
+    }
+
+}
@@ -0,0 +1,70 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class StrikeContextTest {
+
+    @Test
+    public void testBitIdenticalToTransformedRationalGuess() throws Exception {
+        double[] xs = {-500, -20, -1, -0.1, 0, 0.1, 1, 20, 500};
+        double[] ss = {1e-3, 0.1, 0.5, 1, 2, 4, 10};
+        double[] qs = {1, -1};
+        for (double x : xs) {
+            StrikeContext context = new StrikeContext(x);
+            for (double s : ss) {
+                for (double q : qs) {
+                    double beta = LetsBeRational.normalised_black(x, s, q);
+                    for (int N = 0; N <= 3; N++) {
+                        double expected = LetsBeRational.normalised_implied_volatility_from_a_transformed_rational_guess_with_limited_iterations_nothrow(beta, x, q, N);
+                        double actual = LetsBeRational.normalised_implied_volatility_from_a_strike_context_with_limited_iterations_nothrow(context, beta, q, N);
+                        assertEquals(String.format("x=%s s=%s q=%s N=%d", x, s, q, N), Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCachedPricesBitIdentical() throws Exception {
+        StrikeContextCache cache = new StrikeContextCache(16);
+        Random random = new Random(42);
+        double F = 100, T = 0.5;
+        for (int i = 0; i < 10000; i++) {
+            double K = 60 + 5 * random.nextInt(20);  // More strikes than slots, so that contexts get evicted.
+            double q = random.nextBoolean() ? 1 : -1;
+            double price = LetsBeRational.black(F, K, 0.05 + random.nextDouble(), T, q) * (0.98 + 0.04 * random.nextDouble());
+            double expected = LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow(price, F, K, T, q);
+            double actual = LetsBeRational.implied_volatility_from_a_strike_context_nothrow(cache, price, F, K, T, q);
+            assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+        }
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        StrikeContextCache cache = new StrikeContextCache(1000);
+        assertEquals(1024, cache.capacity());
+        StrikeContext context = cache.get(-0.25);
+        assertEquals(-0.25, context.x(), 0);
+        assertSame(context, cache.get(-0.25));
+        assertNotSame(context, cache.get(0.25));
+        cache.clear();
+        assertNotSame(context, cache.get(-0.25));
+
+        StrikeContextCache single = new StrikeContextCache(1);
+        context = single.get(-0.25);
+        single.get(0.25);
+        assertNotSame(context, single.get(-0.25));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityMustBePositive() throws Exception {
+        new StrikeContextCache(0);
+    }
+
+}
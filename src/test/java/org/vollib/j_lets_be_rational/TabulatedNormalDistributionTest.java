@@ -0,0 +1,53 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TabulatedNormalDistributionTest {
+
+    @Test
+    public void testNorm_cdfErrorBound() throws Exception {
+        Random random = new Random(17);
+        for (int i = 0; i < 1000000; i++) {
+            double z = -12 + 24 * random.nextDouble();
+            assertEquals("z=" + z, NormalDistribution.norm_cdf(z), TabulatedNormalDistribution.norm_cdf(z), TabulatedNormalDistribution.NORM_CDF_MAXIMUM_ABSOLUTE_ERROR);
+        }
+        // The nodes themselves are exact.
+        for (double z = -10; z < 10; z += 0.25)
+            assertEquals(NormalDistribution.norm_cdf(z), TabulatedNormalDistribution.norm_cdf(z), 1E-16);
+        assertEquals(1, TabulatedNormalDistribution.norm_cdf(10), 0);
+        assertEquals(1, TabulatedNormalDistribution.norm_cdf(Double.POSITIVE_INFINITY), 0);
+        assertEquals(0, TabulatedNormalDistribution.norm_cdf(Double.NEGATIVE_INFINITY), 0);
+        assertTrue(Double.isNaN(TabulatedNormalDistribution.norm_cdf(Double.NaN)));
+    }
+
+    @Test
+    public void testInverse_norm_cdfErrorBound() throws Exception {
+        Random random = new Random(19);
+        for (int i = 0; i < 1000000; i++) {
+            double u = Math.pow(2, -70 * random.nextDouble());
+            if (random.nextBoolean())
+                u = 1 - u;
+            double expected = NormalDistribution.inverse_norm_cdf(u);
+            assertEquals("u=" + u, expected, TabulatedNormalDistribution.inverse_norm_cdf(u), TabulatedNormalDistribution.INVERSE_NORM_CDF_MAXIMUM_RELATIVE_ERROR * Math.abs(expected));
+        }
+        assertEquals(Double.NEGATIVE_INFINITY, TabulatedNormalDistribution.inverse_norm_cdf(0), 0);
+        assertEquals(NormalDistribution.inverse_norm_cdf(1), TabulatedNormalDistribution.inverse_norm_cdf(1), 0);
+        assertEquals(0, TabulatedNormalDistribution.inverse_norm_cdf(0.5), 0);
+    }
+
+    @Test
+    public void testBlack_using_tabulated_norm_cdf() throws Exception {
+        Random random = new Random(23);
+        for (int i = 0; i < 100000; i++) {
+            double F = 100, K = 20 + 200 * random.nextDouble(), sigma = 0.01 + random.nextDouble(), T = 0.01 + 5 * random.nextDouble(), q = random.nextBoolean() ? 1 : -1;
+            assertEquals(LetsBeRational.black(F, K, sigma, T, q), LetsBeRational.black_using_tabulated_norm_cdf(F, K, sigma, T, q), (F + K) * TabulatedNormalDistribution.NORM_CDF_MAXIMUM_ABSOLUTE_ERROR + 1E-12);
+        }
+        assertEquals(10, LetsBeRational.black_using_tabulated_norm_cdf(100, 90, 0, 1, 1), 0);
+    }
+
+}
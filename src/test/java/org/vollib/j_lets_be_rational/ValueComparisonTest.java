@@ -110,6 +110,7 @@ public class ValueComparisonTest {
     private void assertVolatilityValueException(VolatilityValueException exception, double expected) {
         if (exception instanceof VolatilityValueException.BelowIntrinsicException || exception instanceof VolatilityValueException.AboveMaximumException) {
             assertEquals(exception.getMessage(), expected, exception.getValue(), Constants.DBL_EPSILON);
+            assertEquals(exception.getMessage(), exception.getValue(), exception.value(), 0);
         } else {
             fail("Unhandled exception.");
         }
@@ -0,0 +1,17 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs VectorisedBlackTest against the packaged multi-release jar with jdk.incubator.vector, see the java17 profile.
+ */
+public class VectorisedBlackIT extends VectorisedBlackTest {
+
+    @Test
+    public void testIsVectorised() {
+        assertTrue(VectorisedBlack.is_vectorised());
+    }
+
+}
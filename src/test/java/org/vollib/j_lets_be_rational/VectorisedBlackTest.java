@@ -0,0 +1,46 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class VectorisedBlackTest {
+
+    // Relative accuracy against LetsBeRational.normalised_black_call(), allowing for lane-wise exponentials.
+    private static final double tolerance = 1.0e-13;
+
+    private static void assertMatchesScalar(double[] x, double[] s) {
+        final int n = x.length;
+        double[] b = new double[n + 2];
+        VectorisedBlack.normalised_black_call(x, s, b, 1, n - 1);
+        assertEquals(0, b[0], 0);
+        for (int i = 1; i < n; i++) {
+            final double expected = LetsBeRational.normalised_black_call(x[i], s[i]);
+            assertEquals(String.format("x = %s, s = %s", x[i], s[i]), expected, b[i], tolerance * expected);
+        }
+        assertEquals(0, b[n], 0);
+    }
+
+    @Test
+    public void testAllRegions() {
+        // Regions 1, 2, 3 and 4 for out-of-the-money and in-the-money options, plus s=0, x=0 and very large s.
+        double[] x = {-20, -1, -0.1, -1, 20, 1, 0.1, 1, -1, 0, 0, -3, 3, -0.5, 0.5, -700, 0.25};
+        double[] s = {0.1, 0.1, 2, 1, 0.1, 0.1, 2, 1, 0, 0.5, 3, 5, 5, 40, 40, 50, 0.3};
+        assertMatchesScalar(x, s);
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(7);
+        final int n = 10007;
+        double[] x = new double[n], s = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = 6 * (random.nextDouble() - 0.5);
+            s[i] = 0.01 + 3 * random.nextDouble();
+        }
+        assertMatchesScalar(x, s);
+    }
+
+}
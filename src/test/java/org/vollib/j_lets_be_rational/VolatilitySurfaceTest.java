@@ -0,0 +1,113 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class VolatilitySurfaceTest {
+
+    private static final double[] T = {0.25, 1, 3};
+    private static final double[] K = {70, 80, 90, 100, 110, 120, 130};
+    private static final double[] q = {-1, -1, -1, 1, 1, 1, 1};  // Out of the money.
+
+    private static double smile(double T, double K) {
+        return 0.2 + 0.1 * Math.log(K / 100) * Math.log(K / 100) / T;
+    }
+
+    private static VolatilitySurface surface() {
+        VolatilitySurface surface = new VolatilitySurface();
+        for (double t : T) {
+            double[] price = new double[K.length];
+            for (int i = 0; i < K.length; i++)
+                price[i] = LetsBeRational.black(100, K[i], smile(t, K[i]), t, q[i]);
+            surface.add_expiry(t, 100, K, q, price);
+        }
+        return surface;
+    }
+
+    private static void assertSolved(VolatilitySurface surface) {
+        for (int e = 0; e < surface.expiries(); e++) {
+            for (int i = 0; i < surface.strikes(e); i++) {
+                double expected = LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow(surface.price(e, i), surface.forward(e), surface.strike(e, i), surface.time_to_expiry(e), q[i]);
+                assertEquals(expected, surface.volatility(e, i), 1E-14);
+                assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_OK, surface.status(e, i));
+            }
+        }
+    }
+
+    @Test
+    public void testInitialSolve() throws Exception {
+        VolatilitySurface surface = surface();
+        assertEquals(T.length * K.length, surface.dirty_points());
+        assertEquals(T.length * K.length, surface.update());
+        assertSolved(surface);
+        for (int e = 0; e < T.length; e++)
+            for (int i = 0; i < K.length; i++)
+                assertEquals(smile(T[e], K[i]), surface.volatility(e, i), 1E-13);
+        assertEquals(0, surface.update());
+    }
+
+    @Test
+    public void testPriceTick() throws Exception {
+        VolatilitySurface surface = surface();
+        surface.update();
+        double untouched = surface.volatility(1, 2);
+        surface.set_price(1, 5, surface.price(1, 5) * 1.01);
+        surface.set_price(2, 0, surface.price(2, 0) * 0.99);
+        surface.set_price(0, 3, surface.price(0, 3));  // Unchanged.
+        assertTrue(surface.is_dirty(1, 5));
+        assertFalse(surface.is_dirty(0, 3));
+        assertEquals(2, surface.update());
+        assertSolved(surface);
+        assertEquals(Double.doubleToLongBits(untouched), Double.doubleToLongBits(surface.volatility(1, 2)));
+    }
+
+    @Test
+    public void testForwardMove() throws Exception {
+        VolatilitySurface surface = surface();
+        surface.update();
+        surface.set_forward(2, 101);
+        assertEquals(K.length, surface.dirty_points());
+        assertEquals(K.length, surface.update());
+        assertSolved(surface);
+        double[] smile = new double[K.length + 1];
+        surface.smile(2, smile, 1);
+        for (int i = 0; i < K.length; i++)
+            assertEquals(surface.volatility(2, i), smile[i + 1], 0);
+    }
+
+    @Test
+    public void testDeepOutOfTheMoneyWings() throws Exception {
+        // Calls with normalised prices of about 1e-291, whose implied volatilities then tick up by 5%, so that the Black
+        // function underflows at the warm starts from the previous volatilities.
+        double[] x = {-1.28, -1.445, -6.125, -7.605, -14.045, -17.405, -25.205, -31.205};
+        double[] sigma = {0.03521005201684519, 0.039810717055349734, 0.1685259044750751, 0.20892961308540386, 0.3860705432153811, 0.47863009232263853, 0.6918309709189363, 0.8576958985908937};
+        int n = x.length;
+        double[] wing_K = new double[n], wing_q = new double[n], price = new double[n];
+        for (int i = 0; i < n; i++) {
+            wing_K[i] = 100 * Math.exp(-x[i]);
+            wing_q[i] = 1;
+            price[i] = LetsBeRational.black(100, wing_K[i], 0.95 * sigma[i], 1, 1);
+        }
+        VolatilitySurface surface = new VolatilitySurface();
+        surface.add_expiry(1, 100, wing_K, wing_q, price);
+        surface.add_expiry(1, 100, wing_K, wing_q, price);
+        surface.update();
+        // A few points of the first smile, which are solved one by one, and all of the second, which is solved in one batch.
+        for (int i = 0; i < n; i += 2)
+            surface.set_price(0, i, LetsBeRational.black(100, wing_K[i], sigma[i], 1, 1));
+        for (int i = 0; i < n; i++)
+            surface.set_price(1, i, LetsBeRational.black(100, wing_K[i], sigma[i], 1, 1));
+        assertEquals(n / 2 + n, surface.update());
+        for (int e = 0; e < 2; e++) {
+            for (int i = 0; i < n; i++) {
+                double expected = LetsBeRational.implied_volatility_from_a_transformed_rational_guess_nothrow(surface.price(e, i), 100, wing_K[i], 1, 1);
+                assertEquals(expected, surface.volatility(e, i), 1E-14);
+                assertEquals(Constants.IMPLIED_VOLATILITY_STATUS_OK, surface.status(e, i));
+            }
+        }
+    }
+
+}
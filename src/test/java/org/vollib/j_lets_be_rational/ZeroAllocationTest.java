@@ -0,0 +1,90 @@
+package org.vollib.j_lets_be_rational;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertTrue;
+
+public class ZeroAllocationTest {
+
+    private static final int SOLVES = 1000000;
+    private static final long ALLOCATION_ALLOWANCE = 64 * 1024;
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(sunBean.isThreadAllocatedMemorySupported());
+        sunBean.setThreadAllocatedMemoryEnabled(true);
+        return sunBean;
+    }
+
+    private static double solve(double[] price, double[] K, double F, double T, double q, int n) throws VolatilityValueException {
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            final int j = i % price.length;
+            sum += LetsBeRational.implied_volatility_from_a_transformed_rational_guess(price[j], F, K[j], T, q);
+        }
+        return sum;
+    }
+
+    private static void assertNoAllocation(double[] sigma, double[] K, double F, double T, double q) throws VolatilityValueException {
+        com.sun.management.ThreadMXBean bean = threadMXBean();
+        double[] price = new double[K.length];
+        for (int i = 0; i < K.length; i++) {
+            price[i] = LetsBeRational.black(F, K[i], sigma[i], T, q);
+        }
+        solve(price, K, F, T, q, SOLVES / 10);  // warm up
+
+        final long thread = Thread.currentThread().getId();
+        final long before = bean.getThreadAllocatedBytes(thread);
+        final double sum = solve(price, K, F, T, q, SOLVES);
+        final long allocated = bean.getThreadAllocatedBytes(thread) - before;
+        assertTrue(String.format("%d bytes allocated over %d solves", allocated, SOLVES), allocated < ALLOCATION_ALLOWANCE);
+        assertTrue(sum > 0);
+    }
+
+    @Test
+    public void testDeepOutOfTheMoney() throws Exception {
+        // Low and high total volatilities to reach the lower and the upper map branches.
+        double[] sigma = {0.05, 0.1, 0.2, 3, 5, 8};
+        double[] K = {150, 200, 400, 150, 200, 400};
+        assertNoAllocation(sigma, K, 100, 0.5, 1);
+    }
+
+    @Test
+    public void testFirstSolvesOnANewThread() throws Exception {
+        // A thread per request, as with virtual threads, must not pay for per-thread state in the outer branches.
+        double[] sigma = {0.05, 8}, K = {400, 400}, price = new double[2];
+        for (int i = 0; i < 2; i++)
+            price[i] = LetsBeRational.black(100, K[i], sigma[i], 0.5, 1);
+        com.sun.management.ThreadMXBean bean = threadMXBean();
+        solve(price, K, 100, 0.5, 1, SOLVES / 10);  // warm up
+        final long[] allocated = new long[2];
+        final Thread thread = new Thread(() -> {
+            final long id = Thread.currentThread().getId();
+            try {
+                final long start = bean.getThreadAllocatedBytes(id), before = bean.getThreadAllocatedBytes(id);
+                solve(price, K, 100, 0.5, 1, 2);
+                final long after = bean.getThreadAllocatedBytes(id);
+                allocated[0] = before - start;  // The cost of measuring.
+                allocated[1] = after - before;
+            } catch (VolatilityValueException e) {
+                throw new AssertionError(e);
+            }
+        });
+        thread.start();
+        thread.join();
+        assertTrue(String.format("%d bytes allocated by the first solves on a new thread", allocated[1] - allocated[0]), allocated[1] <= allocated[0]);
+    }
+
+    @Test
+    public void testDeepInTheMoney() throws Exception {
+        double[] sigma = {0.05, 0.1, 0.2, 3, 5, 8};
+        double[] K = {150, 200, 400, 150, 200, 400};
+        assertNoAllocation(sigma, K, 100, 0.5, -1);
+    }
+
+}